@@ -0,0 +1,32 @@
+package chess.benchmarks;
+
+import chess.ChessGame;
+import chess.perft.PerftPosition;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The curated positions every benchmark runs over: the perft reference suite
+ * (opening, middlegame and endgame positions with castling, en passant and
+ * promotions), plus one checkmate and one stalemate.
+ */
+public class BenchmarkPositions {
+    public static final PerftPosition CHECKMATE =
+            new PerftPosition("checkmate", "rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w KQkq - 1 3");
+    public static final PerftPosition STALEMATE =
+            new PerftPosition("stalemate", "7k/5Q2/6K1/8/8/8/8/8 b - - 0 1");
+
+    /**
+     * @return a fresh game for every position in the suite
+     */
+    public static List<ChessGame> suite() {
+        List<ChessGame> games = new ArrayList<>();
+        for (PerftPosition position : PerftPosition.STANDARD) {
+            games.add(position.toGame());
+        }
+        games.add(CHECKMATE.toGame());
+        games.add(STALEMATE.toGame());
+        return games;
+    }
+}
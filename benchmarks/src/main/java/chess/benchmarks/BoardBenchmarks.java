@@ -0,0 +1,57 @@
+package chess.benchmarks;
+
+import chess.ChessBoard;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmarks {
+    private ChessBoard scratch;
+    private ChessBoard board;
+    private ChessBoard equalBoard;
+    private ChessBoard differentBoard;
+
+    @Setup
+    public void setUp() {
+        scratch = new ChessBoard();
+        board = BenchmarkPositions.suite().get(1).getBoard();
+        equalBoard = BenchmarkPositions.suite().get(1).getBoard();
+        differentBoard = BenchmarkPositions.suite().get(0).getBoard();
+    }
+
+    @Benchmark
+    public ChessBoard resetBoard() {
+        scratch.resetBoard();
+        return scratch;
+    }
+
+    @Benchmark
+    public boolean equalsEqual() {
+        return board.equals(equalBoard);
+    }
+
+    @Benchmark
+    public boolean equalsDifferent() {
+        return board.equals(differentBoard);
+    }
+
+    @Benchmark
+    public int hashCodeBoard() {
+        return board.hashCode();
+    }
+}
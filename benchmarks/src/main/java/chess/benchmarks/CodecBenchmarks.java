@@ -0,0 +1,106 @@
+package chess.benchmarks;
+
+import chess.BinaryGameCodec;
+import chess.ChessGame;
+import chess.Fen;
+import com.google.gson.Gson;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BinaryGameCodec and FEN against Gson, encoding and decoding every position
+ * in the suite
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodecBenchmarks {
+    private final Gson gson = new Gson();
+    private List<ChessGame> games;
+    private List<byte[]> binary;
+    private List<String> json;
+    private List<String> fen;
+    private ByteBuffer buffer;
+    private StringBuilder builder;
+    private ChessGame reused;
+
+    @Setup
+    public void setUp() {
+        games = BenchmarkPositions.suite();
+        binary = new ArrayList<>();
+        json = new ArrayList<>();
+        fen = new ArrayList<>();
+        for (ChessGame game : games) {
+            binary.add(BinaryGameCodec.encode(game));
+            json.add(gson.toJson(game));
+            fen.add(Fen.format(game));
+        }
+        buffer = ByteBuffer.allocate(BinaryGameCodec.POSITION_BYTES);
+        builder = new StringBuilder(90);
+        reused = new ChessGame();
+    }
+
+    @Benchmark
+    public void binaryEncode(Blackhole blackhole) {
+        for (ChessGame game : games) {
+            buffer.clear();
+            BinaryGameCodec.write(game, false, buffer);
+            blackhole.consume(buffer);
+        }
+    }
+
+    @Benchmark
+    public void binaryDecode(Blackhole blackhole) {
+        for (byte[] bytes : binary) {
+            blackhole.consume(BinaryGameCodec.decode(bytes));
+        }
+    }
+
+    @Benchmark
+    public void gsonEncode(Blackhole blackhole) {
+        for (ChessGame game : games) {
+            blackhole.consume(gson.toJson(game));
+        }
+    }
+
+    @Benchmark
+    public void gsonDecode(Blackhole blackhole) {
+        for (String text : json) {
+            blackhole.consume(gson.fromJson(text, ChessGame.class));
+        }
+    }
+
+    @Benchmark
+    public void fenFormat(Blackhole blackhole) {
+        for (ChessGame game : games) {
+            builder.setLength(0);
+            Fen.format(game, builder);
+            blackhole.consume(builder);
+        }
+    }
+
+    @Benchmark
+    public void fenParse(Blackhole blackhole) {
+        for (String position : fen) {
+            Fen.parse(position, reused);
+            blackhole.consume(reused);
+        }
+    }
+}
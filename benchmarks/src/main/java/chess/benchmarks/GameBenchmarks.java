@@ -0,0 +1,94 @@
+package chess.benchmarks;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ChessGame queries across every position in the suite
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameBenchmarks {
+    private List<ChessGame> games;
+    //the legal moves of the side to move in each game
+    private List<List<ChessMove>> rootMoves;
+
+    @Setup
+    public void setUp() {
+        games = BenchmarkPositions.suite();
+        rootMoves = new ArrayList<>();
+        for (ChessGame game : games) {
+            rootMoves.add(new ArrayList<>(game.legalMoves(game.getTeamTurn())));
+        }
+    }
+
+    @Benchmark
+    public void validMoves(Blackhole blackhole) {
+        for (ChessGame game : games) {
+            ChessBoard board = game.getBoard();
+            long pieces = board.getPieces(game.getTeamTurn());
+            while (pieces != 0) {
+                int square = Long.numberOfTrailingZeros(pieces);
+                pieces &= pieces - 1;
+                blackhole.consume(game.validMoves(ChessPosition.of(square)));
+            }
+        }
+    }
+
+    @Benchmark
+    public void legalMoves(Blackhole blackhole) {
+        for (ChessGame game : games) {
+            blackhole.consume(game.legalMoves(game.getTeamTurn()));
+        }
+    }
+
+    /**
+     * Validated makeMove of every legal root move, each taken back with unmakeMove
+     */
+    @Benchmark
+    public void makeMove() throws InvalidMoveException {
+        for (int i = 0; i < games.size(); i++) {
+            ChessGame game = games.get(i);
+            for (ChessMove move : rootMoves.get(i)) {
+                game.makeMove(move);
+                game.unmakeMove();
+            }
+        }
+    }
+
+    @Benchmark
+    public void isInCheckmate(Blackhole blackhole) {
+        for (ChessGame game : games) {
+            blackhole.consume(game.isInCheckmate(game.getTeamTurn()));
+        }
+    }
+
+    @Benchmark
+    public void isInStalemate(Blackhole blackhole) {
+        for (ChessGame game : games) {
+            blackhole.consume(game.isInStalemate(game.getTeamTurn()));
+        }
+    }
+}
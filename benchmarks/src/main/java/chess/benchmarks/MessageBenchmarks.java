@@ -0,0 +1,110 @@
+package chess.benchmarks;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import com.google.gson.Gson;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import websocket.MessageCodec;
+import websocket.commands.MakeMoveCommand;
+import websocket.commands.UserGameCommand;
+import websocket.messages.GameDeltaMessage;
+import websocket.messages.LoadGameMessage;
+import websocket.messages.ServerMessage;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MessageCodec against Gson for the websocket traffic: a LOAD_GAME with a
+ * mid-game board, the GAME_DELTA that can replace it and a MAKE_MOVE command
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageBenchmarks {
+    private final Gson gson = new Gson();
+    private final MessageCodec codec = new MessageCodec();
+    private ServerMessage loadGame;
+    private String loadGameJson;
+    private ServerMessage gameDelta;
+    private UserGameCommand makeMove;
+    private String makeMoveJson;
+
+    @Setup
+    public void setUp() throws InvalidMoveException {
+        ChessGame game = BenchmarkPositions.suite().get(1);
+        loadGame = new LoadGameMessage(game);
+        loadGameJson = gson.toJson(loadGame);
+        ChessMove move = game.legalMoves(game.getTeamTurn()).iterator().next();
+        ChessGame after = new ChessGame(game);
+        after.makeMove(move);
+        gameDelta = GameDeltaMessage.after(after, move);
+        makeMove = new MakeMoveCommand("3f2a9c1e-7b44-4d0e-9a55-0c6f1d2b8e71", 42,
+                new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        makeMoveJson = gson.toJson(makeMove);
+    }
+
+    @Benchmark
+    public ByteBuffer codecEncodeLoadGame() {
+        return codec.encode(loadGame);
+    }
+
+    @Benchmark
+    public String gsonEncodeLoadGame() {
+        return gson.toJson(loadGame);
+    }
+
+    @Benchmark
+    public ByteBuffer codecEncodeGameDelta() {
+        return codec.encode(gameDelta);
+    }
+
+    @Benchmark
+    public String gsonEncodeGameDelta() {
+        return gson.toJson(gameDelta);
+    }
+
+    @Benchmark
+    public ServerMessage codecDecodeLoadGame() {
+        return MessageCodec.readServerMessage(loadGameJson);
+    }
+
+    @Benchmark
+    public ServerMessage gsonDecodeLoadGame() {
+        return gson.fromJson(loadGameJson, LoadGameMessage.class);
+    }
+
+    @Benchmark
+    public ByteBuffer codecEncodeMakeMove() {
+        return codec.encode(makeMove);
+    }
+
+    @Benchmark
+    public String gsonEncodeMakeMove() {
+        return gson.toJson(makeMove);
+    }
+
+    @Benchmark
+    public UserGameCommand codecDecodeMakeMove() {
+        return MessageCodec.readCommand(makeMoveJson);
+    }
+
+    @Benchmark
+    public UserGameCommand gsonDecodeMakeMove() {
+        return gson.fromJson(makeMoveJson, MakeMoveCommand.class);
+    }
+}
@@ -0,0 +1,55 @@
+package chess.benchmarks;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * pieceMoves for every piece of one type, across every position in the suite
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PieceMovesBenchmarks {
+    @Param({"KING", "QUEEN", "BISHOP", "KNIGHT", "ROOK", "PAWN"})
+    private ChessPiece.PieceType type;
+
+    private List<ChessGame> games;
+
+    @Setup
+    public void setUp() {
+        games = BenchmarkPositions.suite();
+    }
+
+    @Benchmark
+    public void pieceMoves(Blackhole blackhole) {
+        for (ChessGame game : games) {
+            ChessBoard board = game.getBoard();
+            long pieces = board.getPieces(ChessGame.TeamColor.WHITE, type) | board.getPieces(ChessGame.TeamColor.BLACK, type);
+            while (pieces != 0) {
+                int square = Long.numberOfTrailingZeros(pieces);
+                pieces &= pieces - 1;
+                blackhole.consume(board.getPiece(square).pieceMoves(board, ChessPosition.of(square)));
+            }
+        }
+    }
+}
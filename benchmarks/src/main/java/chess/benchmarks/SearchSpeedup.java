@@ -0,0 +1,83 @@
+package chess.benchmarks;
+
+import chess.ChessGame;
+import chess.engine.ParallelSearch;
+import chess.engine.SearchLimits;
+import chess.engine.SearchResult;
+import chess.engine.TranspositionTable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Time-to-depth speedup of the Lazy SMP search. Every position in the suite
+ * is searched to a fixed depth with 1, 2, 4, ... threads, each run starting
+ * from an empty transposition table, and the total time is compared with the
+ * single-threaded time.
+ * <p>
+ * Usage: {@code SearchSpeedup [--depth N] [--threads N] [--hash MB]}
+ */
+public class SearchSpeedup {
+
+    public static void main(String[] args) {
+        int depth = 8;
+        int maxThreads = Runtime.getRuntime().availableProcessors();
+        int megabytes = 64;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--depth" -> depth = Integer.parseInt(args[++i]);
+                case "--threads" -> maxThreads = Integer.parseInt(args[++i]);
+                case "--hash" -> megabytes = Integer.parseInt(args[++i]);
+                default -> {
+                    System.err.println("Usage: SearchSpeedup [--depth N] [--threads N] [--hash MB]");
+                    System.exit(2);
+                }
+            }
+        }
+
+        //positions where there is something to search
+        List<ChessGame> games = new ArrayList<>();
+        for (ChessGame game : BenchmarkPositions.suite()) {
+            if (!game.legalMoves(game.getTeamTurn()).isEmpty()) {
+                games.add(game);
+            }
+        }
+
+        List<Integer> threadCounts = new ArrayList<>();
+        for (int threads = 1; threads < maxThreads; threads *= 2) {
+            threadCounts.add(threads);
+        }
+        threadCounts.add(maxThreads);
+
+        //warm up the JIT so the single-threaded baseline isn't penalised
+        run(games, Math.max(1, depth - 2), maxThreads, megabytes);
+
+        long baseline = 0;
+        for (int threads : threadCounts) {
+            long[] totals = run(games, depth, threads, megabytes);
+            long elapsed = Math.max(1, totals[0]);
+            if (threads == 1) {
+                baseline = elapsed;
+            }
+            double speedup = (double) baseline / elapsed;
+            System.out.printf("%2d threads: depth %d in %,d ms, %,d nodes (%,.0f nodes/s), "
+                            + "speedup %.2fx, efficiency %.0f%%%n", threads, depth, elapsed, totals[1],
+                    totals[1] * 1000.0 / elapsed, speedup, 100 * speedup / threads);
+        }
+    }
+
+    /**
+     * @return the total milliseconds and nodes taken to search every game to depth
+     */
+    private static long[] run(List<ChessGame> games, int depth, int threads, int megabytes) {
+        long[] totals = new long[2];
+        for (ChessGame game : games) {
+            try (ParallelSearch search = new ParallelSearch(threads, new TranspositionTable(megabytes))) {
+                SearchResult result = search.search(game, SearchLimits.depth(depth));
+                totals[0] += result.elapsedMillis();
+                totals[1] += result.nodes();
+            }
+        }
+        return totals;
+    }
+}
@@ -1,8 +1,11 @@
 import chess.*;
+import server.Server;
 
 public class Main {
     public static void main(String[] args) {
         var piece = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN);
         System.out.println("♕ 240 Chess Server: " + piece);
+        int port = new Server().run(8080);
+        System.out.println("Listening on port " + port);
     }
-}
\ No newline at end of file
+}
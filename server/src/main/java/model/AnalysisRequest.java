@@ -0,0 +1,16 @@
+package model;
+
+import chess.ChessGame;
+
+/**
+ * Body of a POST /analysis or /hint request. The position is given either as
+ * a serialized game or as FEN, which wins if both are sent. Either budget may
+ * be left out; hints search to a fixed depth, so /hint ignores timeMillis.
+ *
+ * @param game       the position to analyze
+ * @param fen        the position to analyze, in Forsyth-Edwards Notation
+ * @param depth      deepest iteration to search, in plies
+ * @param timeMillis wall clock budget
+ */
+public record AnalysisRequest(ChessGame game, String fen, Integer depth, Long timeMillis) {
+}
@@ -0,0 +1,19 @@
+package model;
+
+import java.util.List;
+
+/**
+ * The engine's verdict on a position. Moves are in UCI notation, e.g. "e2e4" or "e7e8q".
+ *
+ * @param bestMove           the move to play, or null if there is none
+ * @param score              centipawns from the side to move's point of view
+ * @param mate               whether the score is a forced mate
+ * @param depth              deepest iteration that finished
+ * @param nodes              positions visited
+ * @param nodesPerSecond     search speed
+ * @param elapsedMillis      time spent searching
+ * @param principalVariation the expected line of play, starting with bestMove
+ */
+public record AnalysisResult(String bestMove, int score, boolean mate, int depth, long nodes, long nodesPerSecond,
+                             long elapsedMillis, List<String> principalVariation) {
+}
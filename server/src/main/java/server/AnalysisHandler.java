@@ -0,0 +1,151 @@
+package server;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.Fen;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import io.javalin.http.Context;
+import model.AnalysisRequest;
+import model.AnalysisResult;
+import service.AnalysisRejectedException;
+import service.AnalysisService;
+import service.HintService;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * The engine endpoints. POST /analysis runs the engine on a position within a
+ * depth and time budget; POST /hint searches to a fixed depth through the hint
+ * cache, and GET /hint/stats reports the cache's counters. The request thread
+ * only parses and queues; searches run on the AnalysisService's own workers
+ * and the response is written when they finish.
+ */
+public class AnalysisHandler {
+    private static final Gson GSON = new Gson();
+
+    private final AnalysisService service;
+    private final HintService hintService;
+
+    public AnalysisHandler(AnalysisService service, HintService hintService) {
+        this.service = service;
+        this.hintService = hintService;
+    }
+
+    public void analyze(Context ctx) {
+        AnalysisRequest request = parse(ctx);
+        if (request == null) {
+            return;
+        }
+        try {
+            respond(ctx, service.analyze(request.game(), request.depth(), request.timeMillis()));
+        }
+        catch (IllegalArgumentException e) {
+            error(ctx, 400, "Error: bad request (" + e.getMessage() + ")");
+        }
+        catch (AnalysisRejectedException e) {
+            error(ctx, e.getStatusCode(), e.getMessage());
+        }
+    }
+
+    public void hint(Context ctx) {
+        AnalysisRequest request = parse(ctx);
+        if (request == null) {
+            return;
+        }
+        try {
+            respond(ctx, hintService.hint(request.game(), request.depth()));
+        }
+        catch (IllegalArgumentException e) {
+            error(ctx, 400, "Error: bad request (" + e.getMessage() + ")");
+        }
+        catch (AnalysisRejectedException e) {
+            error(ctx, e.getStatusCode(), e.getMessage());
+        }
+    }
+
+    public void hintStats(Context ctx) {
+        ctx.contentType("application/json").result(GSON.toJson(hintService.stats()));
+    }
+
+    /**
+     * @return the request with its game set up from the FEN or rebuilt, or
+     * null after answering 400
+     */
+    private static AnalysisRequest parse(Context ctx) {
+        try {
+            AnalysisRequest request = GSON.fromJson(ctx.body(), AnalysisRequest.class);
+            if (request == null) {
+                throw new IllegalArgumentException("missing request body");
+            }
+            ChessGame game = (request.fen() != null) ? Fen.parse(request.fen()) : rebuild(request.game());
+            return new AnalysisRequest(game, request.fen(), request.depth(), request.timeMillis());
+        }
+        catch (JsonParseException | IllegalArgumentException e) {
+            error(ctx, 400, "Error: bad request (" + e.getMessage() + ")");
+            return null;
+        }
+    }
+
+    //a hint can also be rejected after it is queued, when it joined a search that was refused
+    private static void respond(Context ctx, CompletableFuture<AnalysisResult> result) {
+        ctx.future(() -> result.handle((analysis, failure) -> {
+            if (failure == null) {
+                ctx.contentType("application/json").result(GSON.toJson(analysis));
+                return null;
+            }
+            Throwable cause = (failure instanceof CompletionException) ? failure.getCause() : failure;
+            if (cause instanceof AnalysisRejectedException rejected) {
+                error(ctx, rejected.getStatusCode(), rejected.getMessage());
+                return null;
+            }
+            throw (failure instanceof CompletionException completion) ? completion : new CompletionException(failure);
+        }));
+    }
+
+    /**
+     * Copies the pieces and side to move of a deserialized game onto a fresh
+     * board, so the bitboards, running scores and keys are consistent whatever
+     * the client sent. Castling rights are inferred from the kings and rooks
+     * on their home squares.
+     *
+     * @throws IllegalArgumentException if the game is incomplete or either side
+     *                                  doesn't have exactly one king
+     */
+    static ChessGame rebuild(ChessGame parsed) {
+        if (parsed == null || parsed.getBoard() == null || parsed.getTeamTurn() == null) {
+            throw new IllegalArgumentException("missing game");
+        }
+        ChessBoard board = new ChessBoard();
+        try {
+            for (int square = 0; square < 64; square++) {
+                ChessPiece piece = parsed.getBoard().getPiece(square);
+                if (piece != null) {
+                    if (piece.getTeamColor() == null || piece.getPieceType() == null) {
+                        throw new IllegalArgumentException("incomplete piece");
+                    }
+                    board.addPiece(square, ChessPiece.of(piece.getTeamColor(), piece.getPieceType()));
+                }
+            }
+        }
+        catch (NullPointerException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("malformed board");
+        }
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            if (Long.bitCount(board.getPieces(color, ChessPiece.PieceType.KING)) != 1) {
+                throw new IllegalArgumentException("each side needs one king");
+            }
+        }
+        ChessGame game = new ChessGame();
+        game.setBoard(board);
+        game.setTeamTurn(parsed.getTeamTurn());
+        return game;
+    }
+
+    private static void error(Context ctx, int status, String message) {
+        ctx.status(status).contentType("application/json").result(GSON.toJson(Map.of("message", message)));
+    }
+}
@@ -0,0 +1,44 @@
+package server;
+
+import io.javalin.*;
+import service.AnalysisService;
+import service.HintCache;
+import service.HintService;
+
+public class Server {
+    //searches that run at once, and how many may wait for a worker
+    private static final int ANALYSIS_WORKERS = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    private static final int ANALYSIS_QUEUE_LIMIT = 16;
+    private static final int ANALYSIS_TABLE_MEGABYTES = 64;
+    //positions whose hints are kept
+    private static final int HINT_CACHE_SIZE = 10_000;
+
+    private final Javalin javalin;
+    private final AnalysisService analysisService;
+
+    public Server() {
+        this(new AnalysisService(ANALYSIS_WORKERS, ANALYSIS_QUEUE_LIMIT, ANALYSIS_TABLE_MEGABYTES));
+    }
+
+    public Server(AnalysisService analysisService) {
+        this.analysisService = analysisService;
+        javalin = Javalin.create(config -> config.staticFiles.add("web"));
+
+        // Register your endpoints and exception handlers here.
+        AnalysisHandler analysisHandler = new AnalysisHandler(analysisService,
+                new HintService(analysisService, new HintCache(HINT_CACHE_SIZE)));
+        javalin.post("/analysis", analysisHandler::analyze);
+        javalin.post("/hint", analysisHandler::hint);
+        javalin.get("/hint/stats", analysisHandler::hintStats);
+    }
+
+    public int run(int desiredPort) {
+        javalin.start(desiredPort);
+        return javalin.port();
+    }
+
+    public void stop() {
+        javalin.stop();
+        analysisService.close();
+    }
+}
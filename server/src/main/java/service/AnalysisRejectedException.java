@@ -0,0 +1,20 @@
+package service;
+
+/**
+ * Indicates the analysis service can't take on another search right now
+ */
+public class AnalysisRejectedException extends Exception {
+    private final int statusCode;
+
+    public AnalysisRejectedException(String message, int statusCode) {
+        super(message);
+        this.statusCode = statusCode;
+    }
+
+    /**
+     * @return the HTTP status to answer with: 429 when the queue is full, 503 when shutting down
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+}
@@ -0,0 +1,114 @@
+package service;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.PackedMove;
+import chess.engine.Search;
+import chess.engine.SearchLimits;
+import chess.engine.SearchResult;
+import chess.engine.TranspositionTable;
+import model.AnalysisResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs engine searches on a fixed pool of worker threads, kept apart from the
+ * threads serving game traffic. Waiting searches queue up to a limit; past it
+ * new requests are turned away at once instead of piling up latency. Every
+ * search is capped at MAX_TIME_MILLIS, and the workers share one
+ * transposition table.
+ */
+public class AnalysisService implements AutoCloseable {
+    public static final int MAX_DEPTH = 30;
+    public static final long MAX_TIME_MILLIS = 10_000;
+    public static final long DEFAULT_TIME_MILLIS = 1_000;
+
+    private final ThreadPoolExecutor executor;
+    //each worker thread keeps its own search and its tables
+    private final ThreadLocal<Search> searches;
+
+    /**
+     * @param workers         searches that run at once
+     * @param queueLimit      searches that may wait for a worker
+     * @param tableMegabytes  size of the shared transposition table
+     */
+    public AnalysisService(int workers, int queueLimit, int tableMegabytes) {
+        TranspositionTable table = new TranspositionTable(tableMegabytes);
+        searches = ThreadLocal.withInitial(() -> new Search(table));
+        AtomicInteger workerNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueLimit), runnable -> {
+            Thread thread = new Thread(runnable, "analysis-" + workerNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Queues a search of the game's current position. The game must not be
+     * changed until the search finishes.
+     *
+     * @param depth      deepest iteration, or null for no depth limit
+     * @param timeMillis time budget, or null for the default
+     * @return the result, completed by a worker thread
+     * @throws AnalysisRejectedException if the queue is full or the service is shut down
+     */
+    public CompletableFuture<AnalysisResult> analyze(ChessGame game, Integer depth, Long timeMillis)
+            throws AnalysisRejectedException {
+        SearchLimits limits = limits(depth, timeMillis);
+        if (executor.isShutdown()) {
+            throw new AnalysisRejectedException("Error: analysis service is shutting down", 503);
+        }
+        try {
+            return CompletableFuture.supplyAsync(() -> toResult(searches.get().search(game, limits)), executor);
+        }
+        catch (RejectedExecutionException e) {
+            if (executor.isShutdown()) {
+                throw new AnalysisRejectedException("Error: analysis service is shutting down", 503);
+            }
+            throw new AnalysisRejectedException("Error: too many analysis requests", 429);
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if a budget is out of range
+     */
+    static SearchLimits limits(Integer depth, Long timeMillis) {
+        if (depth != null && (depth < 1 || depth > MAX_DEPTH)) {
+            throw new IllegalArgumentException("depth must be between 1 and " + MAX_DEPTH);
+        }
+        if (timeMillis != null && (timeMillis < 1 || timeMillis > MAX_TIME_MILLIS)) {
+            throw new IllegalArgumentException("timeMillis must be between 1 and " + MAX_TIME_MILLIS);
+        }
+        long time = (timeMillis != null) ? timeMillis : (depth != null) ? MAX_TIME_MILLIS : DEFAULT_TIME_MILLIS;
+        return new SearchLimits((depth != null) ? depth : 0, time, 0);
+    }
+
+    static AnalysisResult toResult(SearchResult result) {
+        List<String> line = new ArrayList<>(result.principalVariation().size());
+        for (ChessMove move : result.principalVariation()) {
+            line.add(PackedMove.toString(PackedMove.of(move)));
+        }
+        return new AnalysisResult(line.isEmpty() ? null : line.getFirst(), result.score(), result.isMate(),
+                result.depth(), result.nodes(), result.nodesPerSecond(), result.elapsedMillis(), line);
+    }
+
+    /**
+     * @return searches running or waiting
+     */
+    public int getPending() {
+        return executor.getActiveCount() + executor.getQueue().size();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
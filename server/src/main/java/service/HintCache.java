@@ -0,0 +1,78 @@
+package service;
+
+import model.AnalysisResult;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Least recently used cache of analysis results keyed by the position's
+ * Zobrist key, which covers the pieces, side to move, castling rights and en
+ * passant square. Each position keeps its deepest result, and a lookup is
+ * served by any result at least as deep as asked for. Hit, miss and eviction
+ * counts are kept for monitoring.
+ */
+public class HintCache {
+    private final int capacity;
+    private final LinkedHashMap<Long, AnalysisResult> results;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * @param capacity the most positions kept; the least recently used goes first
+     */
+    public HintCache(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Hint cache needs room for at least 1 position, got " + capacity);
+        }
+        this.capacity = capacity;
+        results = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, AnalysisResult> eldest) {
+                if (size() > HintCache.this.capacity) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * @return a result searched to at least depth, or null
+     */
+    public synchronized AnalysisResult get(long key, int depth) {
+        AnalysisResult result = results.get(key);
+        if (result != null && result.depth() >= depth) {
+            hits++;
+            return result;
+        }
+        misses++;
+        return null;
+    }
+
+    /**
+     * Stores a result unless a deeper one is already cached for the position
+     */
+    public synchronized void put(long key, AnalysisResult result) {
+        AnalysisResult old = results.get(key);
+        if (old == null || old.depth() <= result.depth()) {
+            results.put(key, result);
+        }
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(results.size(), capacity, hits, misses, evictions);
+    }
+
+    /**
+     * A snapshot of the cache's counters
+     */
+    public record Stats(int size, int capacity, long hits, long misses, long evictions) {
+        public double hitRate() {
+            long lookups = hits + misses;
+            return (lookups == 0) ? 0 : (double) hits / lookups;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package service;
+
+import chess.ChessGame;
+import model.AnalysisResult;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Move hints: fixed-depth searches answered from a HintCache when the position
+ * has been searched deep enough before. Requests for a position already being
+ * searched deep enough wait for that search instead of starting another.
+ */
+public class HintService {
+    public static final int DEFAULT_DEPTH = 8;
+
+    private final AnalysisService analysisService;
+    private final HintCache cache;
+    private final ConcurrentMap<Long, Pending> pending = new ConcurrentHashMap<>();
+
+    private record Pending(int depth, CompletableFuture<AnalysisResult> result) {
+    }
+
+    public HintService(AnalysisService analysisService, HintCache cache) {
+        this.analysisService = analysisService;
+        this.cache = cache;
+    }
+
+    /**
+     * @param depth how deep to search, or null for DEFAULT_DEPTH
+     * @throws IllegalArgumentException  if depth is out of range, as for AnalysisService
+     * @return the result; if this request joined a search that was then refused,
+     * the future fails with that AnalysisRejectedException instead
+     * @throws AnalysisRejectedException if a search is needed and the analysis queue is full
+     */
+    public CompletableFuture<AnalysisResult> hint(ChessGame game, Integer depth) throws AnalysisRejectedException {
+        int searchDepth = (depth != null) ? depth : DEFAULT_DEPTH;
+        AnalysisService.limits(searchDepth, null);
+        long key = game.getZobristKey();
+        AnalysisResult cached = cache.get(key, searchDepth);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        //claim the position in one step, so only one of several concurrent requests starts a
+        //search and a shallower one never replaces a deeper search in progress
+        Pending claim = new Pending(searchDepth, new CompletableFuture<>());
+        Pending inProgress = pending.compute(key, (k, current) ->
+                (current != null && current.depth() >= searchDepth) ? current : claim);
+        if (inProgress != claim) {
+            return inProgress.result();
+        }
+
+        //started outside compute, since the search may finish before analyze returns
+        CompletableFuture<AnalysisResult> search;
+        try {
+            search = analysisService.analyze(game, searchDepth, null);
+        }
+        catch (AnalysisRejectedException | RuntimeException e) {
+            pending.remove(key, claim);
+            claim.result().completeExceptionally(e);
+            throw e;
+        }
+        search.whenComplete((analysis, error) -> {
+            if (analysis != null) {
+                cache.put(key, analysis);
+            }
+            pending.remove(key, claim);
+            if (error != null) {
+                claim.result().completeExceptionally(error);
+            }
+            else {
+                claim.result().complete(analysis);
+            }
+        });
+        return claim.result();
+    }
+
+    public HintCache.Stats stats() {
+        return cache.stats();
+    }
+}
@@ -0,0 +1,93 @@
+package server;
+
+import chess.ChessGame;
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import model.AnalysisRequest;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import service.AnalysisService;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+public class AnalysisEndpointTests {
+    private static final Gson GSON = new Gson();
+    private static Server server;
+    private static int port;
+
+    @BeforeAll
+    public static void startServer() {
+        server = new Server(new AnalysisService(1, 4, 1));
+        port = server.run(0);
+    }
+
+    @AfterAll
+    public static void stopServer() {
+        server.stop();
+    }
+
+    private static HttpResponse<String> post(String body) throws Exception {
+        return post("/analysis", body);
+    }
+
+    private static HttpResponse<String> post(String path, String body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .POST(HttpRequest.BodyPublishers.ofString(body)).build();
+        return HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    @DisplayName("Analyzes A Serialized Game")
+    public void analyzesGame() throws Exception {
+        HttpResponse<String> response = post(GSON.toJson(new AnalysisRequest(new ChessGame(), null, 3, null)));
+        Assertions.assertEquals(200, response.statusCode(), response.body());
+        JsonObject result = GSON.fromJson(response.body(), JsonObject.class);
+        Assertions.assertEquals(3, result.get("depth").getAsInt());
+        Assertions.assertTrue(result.get("bestMove").getAsString().matches("[a-h][1-8][a-h][1-8]"));
+        Assertions.assertFalse(result.getAsJsonArray("principalVariation").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Analyzes A FEN Position")
+    public void analyzesFen() throws Exception {
+        HttpResponse<String> response = post("{\"fen\":\"6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1\",\"depth\":3}");
+        Assertions.assertEquals(200, response.statusCode(), response.body());
+        JsonObject result = GSON.fromJson(response.body(), JsonObject.class);
+        Assertions.assertEquals("a1a8", result.get("bestMove").getAsString());
+        Assertions.assertTrue(result.get("mate").getAsBoolean());
+
+        Assertions.assertEquals(400, post("{\"fen\":\"8/8/8 w - - 0 1\",\"depth\":3}").statusCode());
+    }
+
+    @Test
+    @DisplayName("Bad Requests Are Rejected")
+    public void badRequests() throws Exception {
+        Assertions.assertEquals(400, post("not json").statusCode());
+        Assertions.assertEquals(400, post("{}").statusCode());
+        HttpResponse<String> response = post(GSON.toJson(new AnalysisRequest(new ChessGame(), null, 99, null)));
+        Assertions.assertEquals(400, response.statusCode());
+        Assertions.assertTrue(response.body().contains("Error"));
+    }
+
+    @Test
+    @DisplayName("Hints Are Cached")
+    public void hintsAreCached() throws Exception {
+        String body = GSON.toJson(new AnalysisRequest(new ChessGame(), null, 3, null));
+        HttpResponse<String> first = post("/hint", body);
+        HttpResponse<String> second = post("/hint", body);
+        Assertions.assertEquals(200, first.statusCode(), first.body());
+        Assertions.assertEquals(first.body(), second.body());
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/hint/stats")).build();
+        JsonObject stats = GSON.fromJson(HttpClient.newHttpClient()
+                .send(request, HttpResponse.BodyHandlers.ofString()).body(), JsonObject.class);
+        Assertions.assertEquals(1, stats.get("hits").getAsLong());
+        Assertions.assertEquals(1, stats.get("misses").getAsLong());
+    }
+}
@@ -0,0 +1,64 @@
+package service;
+
+import chess.ChessGame;
+import chess.Fen;
+import chess.perft.PerftPosition;
+import model.AnalysisResult;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public class AnalysisServiceTests {
+
+    @Test
+    @DisplayName("Analyzes A Position")
+    public void analyzes() throws Exception {
+        try (AnalysisService service = new AnalysisService(1, 4, 1)) {
+            ChessGame game = Fen.parse("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1");
+            AnalysisResult result = service.analyze(game, 4, null).get();
+            Assertions.assertEquals("a1a8", result.bestMove());
+            Assertions.assertTrue(result.mate());
+            Assertions.assertEquals(List.of("a1a8"), result.principalVariation());
+        }
+    }
+
+    @Test
+    @DisplayName("Rejects Out Of Range Budgets")
+    public void rejectsBadBudgets() {
+        try (AnalysisService service = new AnalysisService(1, 4, 1)) {
+            ChessGame game = new ChessGame();
+            Assertions.assertThrows(IllegalArgumentException.class, () -> service.analyze(game, 0, null));
+            Assertions.assertThrows(IllegalArgumentException.class,
+                    () -> service.analyze(game, AnalysisService.MAX_DEPTH + 1, null));
+            Assertions.assertThrows(IllegalArgumentException.class,
+                    () -> service.analyze(game, null, AnalysisService.MAX_TIME_MILLIS + 1));
+        }
+    }
+
+    @Test
+    @DisplayName("Turns Requests Away When Saturated")
+    public void admissionControl() throws Exception {
+        List<CompletableFuture<AnalysisResult>> accepted = new ArrayList<>();
+        try (AnalysisService service = new AnalysisService(1, 1, 1)) {
+            ChessGame game = PerftPosition.named("kiwipete").toGame();
+            //one running and one queued
+            accepted.add(service.analyze(game, null, 300L));
+            accepted.add(service.analyze(game, null, 300L));
+            AnalysisRejectedException rejected = Assertions.assertThrows(AnalysisRejectedException.class,
+                    () -> service.analyze(game, null, 300L));
+            Assertions.assertEquals(429, rejected.getStatusCode());
+            for (CompletableFuture<AnalysisResult> result : accepted) {
+                Assertions.assertNotNull(result.get().bestMove());
+            }
+
+            service.close();
+            rejected = Assertions.assertThrows(AnalysisRejectedException.class,
+                    () -> service.analyze(game, null, 300L));
+            Assertions.assertEquals(503, rejected.getStatusCode());
+        }
+    }
+}
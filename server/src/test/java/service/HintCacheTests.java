@@ -0,0 +1,99 @@
+package service;
+
+import chess.ChessGame;
+import model.AnalysisResult;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public class HintCacheTests {
+
+    private static AnalysisResult result(int depth) {
+        return new AnalysisResult("e2e4", 0, false, depth, 1, 1, 1, List.of("e2e4"));
+    }
+
+    @Test
+    @DisplayName("Serves Results At Least As Deep As Asked")
+    public void depthCheck() {
+        HintCache cache = new HintCache(4);
+        cache.put(1, result(6));
+        Assertions.assertNotNull(cache.get(1, 4));
+        Assertions.assertNotNull(cache.get(1, 6));
+        Assertions.assertNull(cache.get(1, 7));
+        Assertions.assertNull(cache.get(2, 1));
+
+        //a shallower result doesn't replace a deeper one
+        cache.put(1, result(3));
+        Assertions.assertEquals(6, cache.get(1, 1).depth());
+
+        HintCache.Stats stats = cache.stats();
+        Assertions.assertEquals(3, stats.hits());
+        Assertions.assertEquals(2, stats.misses());
+    }
+
+    @Test
+    @DisplayName("Evicts The Least Recently Used")
+    public void evictsLeastRecentlyUsed() {
+        HintCache cache = new HintCache(2);
+        cache.put(1, result(5));
+        cache.put(2, result(5));
+        cache.get(1, 5);
+        cache.put(3, result(5));
+        Assertions.assertNotNull(cache.get(1, 5));
+        Assertions.assertNull(cache.get(2, 5));
+        Assertions.assertNotNull(cache.get(3, 5));
+        Assertions.assertEquals(1, cache.stats().evictions());
+        Assertions.assertEquals(2, cache.stats().size());
+    }
+
+    @Test
+    @DisplayName("Repeated Hints Come From The Cache")
+    public void hintServiceUsesCache() throws Exception {
+        try (AnalysisService analysis = new AnalysisService(1, 4, 1)) {
+            HintService hints = new HintService(analysis, new HintCache(16));
+            ChessGame game = new ChessGame();
+            AnalysisResult first = hints.hint(game, 4).get();
+            AnalysisResult second = hints.hint(game, 3).get();
+            Assertions.assertSame(first, second);
+            Assertions.assertEquals(1, hints.stats().hits());
+            Assertions.assertEquals(1, hints.stats().misses());
+        }
+    }
+
+    @Test
+    @DisplayName("Concurrent Hints Share One Search")
+    public void concurrentHintsShareSearch() throws Exception {
+        try (AnalysisService analysis = new AnalysisService(1, 4, 1)) {
+            HintService hints = new HintService(analysis, new HintCache(16));
+            //keep the only worker busy so the hints stay pending
+            CompletableFuture<AnalysisResult> busy = analysis.analyze(new ChessGame(), null, 300L);
+            ChessGame game = new ChessGame();
+            CompletableFuture<AnalysisResult> first = hints.hint(game, 3);
+            Assertions.assertSame(first, hints.hint(game, 3));
+            CompletableFuture<AnalysisResult> deeper = hints.hint(game, 4);
+            Assertions.assertNotSame(first, deeper);
+            //a shallower request waits for the deeper search rather than replacing it
+            Assertions.assertSame(deeper, hints.hint(game, 2));
+            busy.get();
+            Assertions.assertEquals(3, first.get().depth());
+            Assertions.assertEquals(4, deeper.get().depth());
+        }
+    }
+
+    @Test
+    @DisplayName("Hint Depths Are Checked Before The Cache")
+    public void hintDepthChecked() throws Exception {
+        try (AnalysisService analysis = new AnalysisService(1, 4, 1)) {
+            HintService hints = new HintService(analysis, new HintCache(16));
+            ChessGame game = new ChessGame();
+            hints.hint(game, 3).get();
+            Assertions.assertThrows(IllegalArgumentException.class, () -> hints.hint(game, 0));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> hints.hint(game, -2));
+            Assertions.assertThrows(IllegalArgumentException.class,
+                    () -> hints.hint(game, AnalysisService.MAX_DEPTH + 1));
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package chess;
+
+/**
+ * Precomputed attack masks for the pieces that jump to a fixed set of squares
+ * (knights, kings and pawn captures). Each table has one bitboard per square,
+ * so finding a leaper's targets is a single array lookup.
+ */
+public final class AttackTables {
+    //row, column offsets
+    static final int[][] KNIGHT_OFFSETS = {{1, -2}, {2, -1}, {2, 1}, {1, 2}, {-1, 2}, {-2, 1}, {-2, -1}, {-1, -2}};
+    static final int[][] KING_OFFSETS = {{1, -1}, {1, 0}, {1, 1}, {0, -1}, {0, 1}, {-1, -1}, {-1, 0}, {-1, 1}};
+    static final int[][] WHITE_PAWN_ATTACK_OFFSETS = {{1, -1}, {1, 1}};
+    static final int[][] BLACK_PAWN_ATTACK_OFFSETS = {{-1, -1}, {-1, 1}};
+
+    static final long[] KNIGHT = leaperTable(KNIGHT_OFFSETS);
+    static final long[] KING = leaperTable(KING_OFFSETS);
+    //indexed by TeamColor ordinal, then square
+    static final long[][] PAWN = {leaperTable(WHITE_PAWN_ATTACK_OFFSETS), leaperTable(BLACK_PAWN_ATTACK_OFFSETS)};
+
+    //squares strictly between two aligned squares, and the full board line through them
+    private static final long[][] BETWEEN = new long[64][64];
+    private static final long[][] LINE = new long[64][64];
+
+    static {
+        int[][] directions = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}, {1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
+        for (int from = 0; from < 64; from++) {
+            for (int[] direction : directions) {
+                long ray = 0;
+                long backward = 0;
+                int row = ChessBoard.rowOf(from) - direction[0];
+                int col = ChessBoard.columnOf(from) - direction[1];
+                while (row >= 1 && row <= 8 && col >= 1 && col <= 8) {
+                    backward |= 1L << ChessBoard.square(row, col);
+                    row -= direction[0];
+                    col -= direction[1];
+                }
+                row = ChessBoard.rowOf(from) + direction[0];
+                col = ChessBoard.columnOf(from) + direction[1];
+                long forward = 0;
+                while (row >= 1 && row <= 8 && col >= 1 && col <= 8) {
+                    int to = ChessBoard.square(row, col);
+                    BETWEEN[from][to] = ray;
+                    ray |= 1L << to;
+                    forward |= 1L << to;
+                    row += direction[0];
+                    col += direction[1];
+                }
+                //every square the ray reaches shares the same line
+                long line = backward | forward | (1L << from);
+                long targets = forward;
+                while (targets != 0) {
+                    LINE[from][Long.numberOfTrailingZeros(targets)] = line;
+                    targets &= targets - 1;
+                }
+            }
+        }
+    }
+
+    private AttackTables() {
+    }
+
+    /**
+     * @return bitboard of the squares strictly between two squares on the same
+     * row, column or diagonal, or 0 if they are not aligned
+     */
+    public static long between(int from, int to) {
+        return BETWEEN[from][to];
+    }
+
+    /**
+     * @return bitboard of the whole row, column or diagonal through two aligned
+     * squares, or 0 if they are not aligned
+     */
+    public static long line(int from, int to) {
+        return LINE[from][to];
+    }
+
+    /**
+     * @return bitboard of the squares a knight on the square attacks
+     */
+    public static long knightAttacks(int square) {
+        return KNIGHT[square];
+    }
+
+    /**
+     * @return bitboard of the squares a king on the square attacks
+     */
+    public static long kingAttacks(int square) {
+        return KING[square];
+    }
+
+    /**
+     * @return bitboard of the squares a pawn of the given color on the square attacks
+     */
+    public static long pawnAttacks(ChessGame.TeamColor color, int square) {
+        return PAWN[color.ordinal()][square];
+    }
+
+    /**
+     * Builds a 64-entry table of target masks for a piece that jumps by fixed offsets
+     *
+     * @param offsets row, column offsets the piece can jump by
+     * @return one bitboard of in-bounds targets per square
+     */
+    static long[] leaperTable(int[][] offsets) {
+        long[] table = new long[64];
+        for (int square = 0; square < 64; square++) {
+            int row = ChessBoard.rowOf(square);
+            int col = ChessBoard.columnOf(square);
+            for (int[] offset : offsets) {
+                int newRow = row + offset[0];
+                int newCol = col + offset[1];
+                if (newRow >= 1 && newRow <= 8 && newCol >= 1 && newCol <= 8) {
+                    table[square] |= 1L << ChessBoard.square(newRow, newCol);
+                }
+            }
+        }
+        return table;
+    }
+}
@@ -0,0 +1,194 @@
+package chess;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * A compact binary format for ChessGame. A position is 34 bytes:
+ * <ul>
+ * <li>byte 0: bit 7 set if black is to move, bit 6 set if move history
+ * follows, bits 0-3 the castling rights</li>
+ * <li>byte 1: the en passant square + 1, or 0 for none</li>
+ * <li>bytes 2-33: the 64 squares, two to a byte with the lower square in the
+ * low nibble; 0 is empty, otherwise the piece's ChessBoard.pieceIndex + 1</li>
+ * </ul>
+ * With history, the position is the one the game started from and it is
+ * followed by the move count as an unsigned varint and two bytes (big-endian)
+ * per move in ChessMove.toPacked form; decoding replays the moves, so the
+ * decoded game can take them back.
+ */
+public final class BinaryGameCodec {
+    public static final int POSITION_BYTES = 34;
+
+    private static final int BLACK_TO_MOVE = 0x80;
+    private static final int HAS_HISTORY = 0x40;
+
+    private BinaryGameCodec() {
+    }
+
+    /**
+     * @return the game's current position, without history
+     */
+    public static byte[] encode(ChessGame game) {
+        return encode(game, false);
+    }
+
+    public static byte[] encode(ChessGame game, boolean includeHistory) {
+        ByteBuffer out = ByteBuffer.allocate(encodedSize(game, includeHistory));
+        write(game, includeHistory, out);
+        return out.array();
+    }
+
+    /**
+     * @return how many bytes write will use
+     */
+    public static int encodedSize(ChessGame game, boolean includeHistory) {
+        if (!includeHistory) {
+            return POSITION_BYTES;
+        }
+        int moves = game.getHistorySize();
+        return POSITION_BYTES + varintSize(moves) + 2 * moves;
+    }
+
+    /**
+     * Writes the game at the buffer's position
+     */
+    public static void write(ChessGame game, boolean includeHistory, ByteBuffer out) {
+        ChessGame position = game;
+        if (includeHistory && game.getHistorySize() > 0) {
+            //the history is written from where it started
+            position = new ChessGame(game);
+            for (int i = 0; i < game.getHistorySize(); i++) {
+                position.unmakeMove();
+            }
+        }
+        int header = position.getCastlingRights();
+        if (position.getTeamTurn() == ChessGame.TeamColor.BLACK) {
+            header |= BLACK_TO_MOVE;
+        }
+        if (includeHistory) {
+            header |= HAS_HISTORY;
+        }
+        out.put((byte) header);
+        out.put((byte) (position.getEnPassantSquare() + 1));
+        ChessBoard board = position.getBoard();
+        for (int square = 0; square < 64; square += 2) {
+            out.put((byte) (nibble(board.getPiece(square)) | (nibble(board.getPiece(square + 1)) << 4)));
+        }
+        if (includeHistory) {
+            int moves = game.getHistorySize();
+            for (int value = moves; ; value >>>= 7) {
+                if (value < 0x80) {
+                    out.put((byte) value);
+                    break;
+                }
+                out.put((byte) ((value & 0x7F) | 0x80));
+            }
+            for (int i = 0; i < moves; i++) {
+                out.putShort((short) (game.getHistoryMove(i) & PackedMove.MOVE_MASK));
+            }
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if the bytes aren't a valid encoding
+     */
+    public static ChessGame decode(byte[] bytes) {
+        return read(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * Reads a game from the buffer's position, leaving the position after it.
+     * The position is checked as Fen.parse checks one: one king a side,
+     * castling rights only with the king and rook at home, and an en passant
+     * square only behind a pawn that could just have skipped it.
+     *
+     * @throws IllegalArgumentException if the bytes aren't a valid encoding
+     */
+    public static ChessGame read(ByteBuffer in) {
+        try {
+            int header = in.get() & 0xFF;
+            int enPassant = (in.get() & 0xFF) - 1;
+            if ((header & 0x30) != 0 || enPassant > 63) {
+                throw new IllegalArgumentException("Not an encoded game: bad header");
+            }
+            ChessBoard board = new ChessBoard();
+            for (int square = 0; square < 64; square += 2) {
+                int pair = in.get() & 0xFF;
+                board.addPiece(square, piece(pair & 0xF));
+                board.addPiece(square + 1, piece(pair >>> 4));
+            }
+            ChessGame.TeamColor turn = ((header & BLACK_TO_MOVE) != 0) ? ChessGame.TeamColor.BLACK
+                    : ChessGame.TeamColor.WHITE;
+            checkPosition(board, turn, header & ChessGame.ALL_CASTLING, enPassant);
+            ChessGame game = new ChessGame(board, turn, header & ChessGame.ALL_CASTLING, enPassant);
+
+            if ((header & HAS_HISTORY) != 0) {
+                int moves = 0;
+                for (int shift = 0; ; shift += 7) {
+                    int next = in.get() & 0xFF;
+                    moves |= (next & 0x7F) << shift;
+                    if (next < 0x80) {
+                        break;
+                    }
+                    if (shift > 21) {
+                        throw new IllegalArgumentException("Not an encoded game: bad move count");
+                    }
+                }
+                for (int i = 0; i < moves; i++) {
+                    int move = in.getShort() & PackedMove.MOVE_MASK;
+                    if (!isPromotionCode(move >>> 12)) {
+                        throw new IllegalArgumentException("Not an encoded game: bad promotion in move " + (i + 1));
+                    }
+                    game.makeMove(ChessMove.of(move));
+                }
+            }
+            return game;
+        }
+        catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Not an encoded game: truncated", e);
+        }
+        catch (InvalidMoveException e) {
+            throw new IllegalArgumentException("Not an encoded game: " + e.getMessage(), e);
+        }
+    }
+
+    //0 for no promotion, or one of the pieces a pawn can become
+    private static boolean isPromotionCode(int code) {
+        return code == 0 || code == PackedMove.promotionCode(ChessPiece.PieceType.QUEEN)
+                || code == PackedMove.promotionCode(ChessPiece.PieceType.ROOK)
+                || code == PackedMove.promotionCode(ChessPiece.PieceType.BISHOP)
+                || code == PackedMove.promotionCode(ChessPiece.PieceType.KNIGHT);
+    }
+
+    private static void checkPosition(ChessBoard board, ChessGame.TeamColor turn, int castling, int enPassant) {
+        if (Long.bitCount(board.getPieces(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING)) != 1
+                || Long.bitCount(board.getPieces(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING)) != 1) {
+            throw new IllegalArgumentException("Not an encoded game: each side needs one king");
+        }
+        String problem = ChessGame.stateProblem(board, turn, castling, enPassant);
+        if (problem != null) {
+            throw new IllegalArgumentException("Not an encoded game: " + problem);
+        }
+    }
+
+    private static int nibble(ChessPiece piece) {
+        return (piece == null) ? 0 : ChessBoard.pieceIndex(piece.getTeamColor(), piece.getPieceType()) + 1;
+    }
+
+    private static ChessPiece piece(int nibble) {
+        if (nibble > 12) {
+            throw new IllegalArgumentException("Not an encoded game: bad piece " + nibble);
+        }
+        return (nibble == 0) ? null : ChessPiece.of(nibble - 1);
+    }
+
+    private static int varintSize(int value) {
+        int size = 1;
+        while (value >= 0x80) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+}
@@ -1,19 +1,54 @@
 package chess;
 
 //This is to import the PieceType enum
+import com.google.gson.annotations.JsonAdapter;
+
 import java.util.Arrays;
 import java.util.Objects;
 
 /**
  * A chessboard that can hold and rearrange chess pieces.
  * <p>
+ * Pieces are stored as bitboards: one 64-bit set per color and piece type,
+ * plus occupancy masks for each color and the whole board. Square 0 is
+ * (row 1, column 1) and square 63 is (row 8, column 8). A 64-entry mailbox
+ * keeps the {@link ChessPiece} objects so {@link #getPiece} stays a lookup.
+ * Only the mailbox is written to JSON (see {@link GameJson}); everything else
+ * is derived from it, so it is transient and rebuilt when a board is read.
+ * <p>
  * Note: You can add to this class, but you may not alter
  * signature of the existing methods.
  */
+@JsonAdapter(GameJson.BoardAdapter.class)
 public class ChessBoard {
-    private ChessPiece[][] board;
+    //one bitboard per color and piece type, indexed by pieceIndex
+    private final transient long[] pieces = new long[12];
+    //all the squares each color occupies, indexed by TeamColor ordinal
+    private final transient long[] colors = new long[2];
+    private transient long occupied;
+    private final ChessPiece[] squares = new ChessPiece[64];
+    //XOR of the Zobrist keys of every piece on its square
+    private transient long zobristKey;
+    //running material and piece-square totals, white minus black (see PieceSquareTables)
+    private transient int midgameScore;
+    private transient int endgameScore;
+    private transient int phase;
+
     public ChessBoard() {
-        board = new ChessPiece[8][8];
+    }
+
+    /**
+     * Creates an independent copy of another board
+     */
+    public ChessBoard(ChessBoard other) {
+        System.arraycopy(other.pieces, 0, pieces, 0, pieces.length);
+        System.arraycopy(other.colors, 0, colors, 0, colors.length);
+        System.arraycopy(other.squares, 0, squares, 0, squares.length);
+        occupied = other.occupied;
+        zobristKey = other.zobristKey;
+        midgameScore = other.midgameScore;
+        endgameScore = other.endgameScore;
+        phase = other.phase;
     }
 
     /**
@@ -23,7 +58,54 @@ public class ChessBoard {
      * @param piece    the piece to add
      */
     public void addPiece(ChessPosition position, ChessPiece piece) {
-        board[position.getRow()-1][position.getColumn()-1] = piece;
+        addPiece(square(position.getRow(), position.getColumn()), piece);
+    }
+
+    /**
+     * Adds a chess piece to the chessboard, replacing whatever was on the square
+     *
+     * @param square the square index (0-63) to add the piece to
+     * @param piece  the piece to add, or null to empty the square
+     */
+    public void addPiece(int square, ChessPiece piece) {
+        removePiece(square);
+        if (piece == null) {
+            return;
+        }
+        long bit = 1L << square;
+        int index = pieceIndex(piece.getTeamColor(), piece.getPieceType());
+        pieces[index] |= bit;
+        colors[piece.getTeamColor().ordinal()] |= bit;
+        occupied |= bit;
+        squares[square] = piece;
+        zobristKey ^= Zobrist.piece(index, square);
+        midgameScore += PieceSquareTables.midgame(index, square);
+        endgameScore += PieceSquareTables.endgame(index, square);
+        phase += PieceSquareTables.phase(index);
+    }
+
+    /**
+     * Removes whatever piece is on a square
+     *
+     * @param square the square index (0-63) to empty
+     * @return the piece that was removed, or null if the square was empty
+     */
+    public ChessPiece removePiece(int square) {
+        ChessPiece piece = squares[square];
+        if (piece == null) {
+            return null;
+        }
+        long bit = 1L << square;
+        int index = pieceIndex(piece.getTeamColor(), piece.getPieceType());
+        pieces[index] &= ~bit;
+        colors[piece.getTeamColor().ordinal()] &= ~bit;
+        occupied &= ~bit;
+        squares[square] = null;
+        zobristKey ^= Zobrist.piece(index, square);
+        midgameScore -= PieceSquareTables.midgame(index, square);
+        endgameScore -= PieceSquareTables.endgame(index, square);
+        phase -= PieceSquareTables.phase(index);
+        return piece;
     }
 
     /**
@@ -34,15 +116,195 @@ public class ChessBoard {
      * position
      */
     public ChessPiece getPiece(ChessPosition position) {
-        return board[position.getRow() - 1][position.getColumn() - 1];
+        return squares[square(position.getRow(), position.getColumn())];
+    }
+
+    /**
+     * @param square the square index (0-63)
+     * @return Either the piece on the square, or null if the square is empty
+     */
+    public ChessPiece getPiece(int square) {
+        return squares[square];
+    }
+
+    /**
+     * @return bitboard of every square holding a piece of the given color and type
+     */
+    public long getPieces(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return pieces[pieceIndex(color, type)];
+    }
+
+    /**
+     * @return bitboard of every square holding a piece of the given color
+     */
+    public long getPieces(ChessGame.TeamColor color) {
+        return colors[color.ordinal()];
+    }
+
+    /**
+     * @return bitboard of every occupied square
+     */
+    public long getOccupied() {
+        return occupied;
+    }
+
+    /**
+     * @return the Zobrist key of the pieces on the board, updated as pieces are
+     * added and removed (see Zobrist)
+     */
+    public long getZobristKey() {
+        return zobristKey;
+    }
+
+    /**
+     * @return material plus piece-square value of the pieces for the middlegame,
+     * white minus black, updated as pieces are added and removed
+     */
+    public int getMidgameScore() {
+        return midgameScore;
+    }
+
+    /**
+     * @return material plus piece-square value of the pieces for the endgame, white minus black
+     */
+    public int getEndgameScore() {
+        return endgameScore;
     }
+
+    /**
+     * @return how much non-pawn material is left, from 0 up to PieceSquareTables.MAX_PHASE
+     * at the start (more after promotions)
+     */
+    public int getPhase() {
+        return phase;
+    }
+
+    /**
+     * Determines whether any piece of a team attacks a square. Probes outward from
+     * the square (pawn diagonals, knight jumps, king ring, then slider rays) and
+     * stops at the first attacker found, so no moves are generated.
+     *
+     * @param square the square index (0-63) to test
+     * @param by     the attacking team
+     * @return True if a piece of that team attacks the square
+     */
+    public boolean isSquareAttacked(int square, ChessGame.TeamColor by) {
+        return isSquareAttacked(square, by, occupied);
+    }
+
+    /**
+     * Same as isSquareAttacked(square, by), but slider rays are traced through
+     * the given occupancy instead of the board's, e.g. with the king lifted off
+     */
+    public boolean isSquareAttacked(int square, ChessGame.TeamColor by, long occupied) {
+        //a pawn of ours attacks the square if an enemy pawn there would attack it
+        if ((AttackTables.pawnAttacks(by.opponent(), square) & getPieces(by, ChessPiece.PieceType.PAWN)) != 0) {
+            return true;
+        }
+        if ((AttackTables.knightAttacks(square) & getPieces(by, ChessPiece.PieceType.KNIGHT)) != 0) {
+            return true;
+        }
+        if ((AttackTables.kingAttacks(square) & getPieces(by, ChessPiece.PieceType.KING)) != 0) {
+            return true;
+        }
+        long queens = getPieces(by, ChessPiece.PieceType.QUEEN);
+        long diagonal = getPieces(by, ChessPiece.PieceType.BISHOP) | queens;
+        if (diagonal != 0 && (SlidingAttacks.bishopAttacks(square, occupied) & diagonal) != 0) {
+            return true;
+        }
+        long orthogonal = getPieces(by, ChessPiece.PieceType.ROOK) | queens;
+        return orthogonal != 0 && (SlidingAttacks.rookAttacks(square, occupied) & orthogonal) != 0;
+    }
+
+    /**
+     * @param square the square index (0-63) to test
+     * @param by     the attacking team
+     * @return bitboard of every piece of that team attacking the square
+     */
+    public long getAttackers(int square, ChessGame.TeamColor by) {
+        long queens = getPieces(by, ChessPiece.PieceType.QUEEN);
+        return (AttackTables.pawnAttacks(by.opponent(), square) & getPieces(by, ChessPiece.PieceType.PAWN))
+                | (AttackTables.knightAttacks(square) & getPieces(by, ChessPiece.PieceType.KNIGHT))
+                | (AttackTables.kingAttacks(square) & getPieces(by, ChessPiece.PieceType.KING))
+                | (SlidingAttacks.bishopAttacks(square, occupied) & (getPieces(by, ChessPiece.PieceType.BISHOP) | queens))
+                | (SlidingAttacks.rookAttacks(square, occupied) & (getPieces(by, ChessPiece.PieceType.ROOK) | queens));
+    }
+
+    /**
+     * Finds the pieces of both teams attacking a square, with slider rays traced
+     * through the given occupancy. Pieces off that occupancy still count, so
+     * callers taking pieces away should mask the result with it.
+     *
+     * @param square   the square index (0-63) to test
+     * @param occupied the squares that block sliders
+     * @return bitboard of every piece attacking the square
+     */
+    public long getAttackers(int square, long occupied) {
+        ChessGame.TeamColor white = ChessGame.TeamColor.WHITE;
+        ChessGame.TeamColor black = ChessGame.TeamColor.BLACK;
+        long queens = getPieces(white, ChessPiece.PieceType.QUEEN) | getPieces(black, ChessPiece.PieceType.QUEEN);
+        long diagonal = getPieces(white, ChessPiece.PieceType.BISHOP) | getPieces(black, ChessPiece.PieceType.BISHOP)
+                | queens;
+        long orthogonal = getPieces(white, ChessPiece.PieceType.ROOK) | getPieces(black, ChessPiece.PieceType.ROOK)
+                | queens;
+        return (AttackTables.pawnAttacks(black, square) & getPieces(white, ChessPiece.PieceType.PAWN))
+                | (AttackTables.pawnAttacks(white, square) & getPieces(black, ChessPiece.PieceType.PAWN))
+                | (AttackTables.knightAttacks(square)
+                & (getPieces(white, ChessPiece.PieceType.KNIGHT) | getPieces(black, ChessPiece.PieceType.KNIGHT)))
+                | (AttackTables.kingAttacks(square)
+                & (getPieces(white, ChessPiece.PieceType.KING) | getPieces(black, ChessPiece.PieceType.KING)))
+                | (SlidingAttacks.bishopAttacks(square, occupied) & diagonal)
+                | (SlidingAttacks.rookAttacks(square, occupied) & orthogonal);
+    }
+
+    /**
+     * Converts a 1-based row and column into a square index
+     *
+     * @return the square index, 0 for (1,1) up to 63 for (8,8)
+     */
+    public static int square(int row, int col) {
+        return ((row - 1) << 3) | (col - 1);
+    }
+
+    /**
+     * @return the 1-based row of a square index
+     */
+    public static int rowOf(int square) {
+        return (square >>> 3) + 1;
+    }
+
+    /**
+     * @return the 1-based column of a square index
+     */
+    public static int columnOf(int square) {
+        return (square & 7) + 1;
+    }
+
+    static int pieceIndex(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return color.ordinal() * 6 + type.ordinal();
+    }
+
+    /**
+     * Removes every piece, leaving an empty board
+     */
+    public void clear() {
+        Arrays.fill(pieces, 0L);
+        Arrays.fill(colors, 0L);
+        occupied = 0L;
+        Arrays.fill(squares, null);
+        zobristKey = 0L;
+        midgameScore = 0;
+        endgameScore = 0;
+        phase = 0;
+    }
+
     /**
      * Sets the board to the default starting board
      * (How the game of chess normally starts)
      */
     public void resetBoard() {
         //create an empty board
-        board = new ChessPiece[8][8];
+        clear();
         //creates a new chessboard
         //ChessBoard board = new ChessBoard();
         //for each piece enum
@@ -180,11 +442,12 @@ public class ChessBoard {
             return false;
         }
         ChessBoard that = (ChessBoard) o;
-        return Objects.deepEquals(board, that.board);
+        //the twelve piece sets fully describe the position
+        return Arrays.equals(pieces, that.pieces);
     }
 
     @Override
     public int hashCode() {
-        return Arrays.deepHashCode(board);
+        return Long.hashCode(zobristKey);
     }
 }
@@ -1,24 +1,100 @@
 package chess;
 
+import com.google.gson.annotations.JsonAdapter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.Objects;
 
 /**
  * For a class that can manage a chess game, making moves on a board
  * <p>
+ * Moves are applied to the board in place. Each move pushes a compact undo
+ * record so {@link #unmakeMove()} can take it back without copying the board.
+ * <p>
+ * A ChessGame must not be shared between threads, even just for reading.
+ * validMoves, isInCheckmate and isInStalemate write moves into a scratch
+ * buffer held by the game, and checking an en passant capture plays it on
+ * the board and takes it back. A thread that needs the game's position
+ * should work on its own copy (see the copy constructor).
+ * <p>
  * Note: You can add to this class, but you may not alter
  * signature of the existing methods.
  */
+@JsonAdapter(GameJson.GameAdapter.class)
 public class ChessGame {
+    //castling rights, one bit each
+    public static final int WHITE_KINGSIDE = 1;
+    public static final int WHITE_QUEENSIDE = 2;
+    public static final int BLACK_KINGSIDE = 4;
+    public static final int BLACK_QUEENSIDE = 8;
+    public static final int ALL_CASTLING = 15;
+
+    //values() clones on every call
+    private static final TeamColor[] TEAMS = TeamColor.values();
+
+    //castling rights kept when a piece moves from or to each square
+    private static final int[] CASTLING_KEPT = new int[64];
+
+    static {
+        Arrays.fill(CASTLING_KEPT, ALL_CASTLING);
+        CASTLING_KEPT[4] &= ~(WHITE_KINGSIDE | WHITE_QUEENSIDE);
+        CASTLING_KEPT[0] &= ~WHITE_QUEENSIDE;
+        CASTLING_KEPT[7] &= ~WHITE_KINGSIDE;
+        CASTLING_KEPT[60] &= ~(BLACK_KINGSIDE | BLACK_QUEENSIDE);
+        CASTLING_KEPT[56] &= ~BLACK_QUEENSIDE;
+        CASTLING_KEPT[63] &= ~BLACK_KINGSIDE;
+    }
+
+    private ChessBoard board;
+    private TeamColor teamTurn;
+    private int castlingRights;
+    //square a pawn skipped over with a double push on the last move, -1 if none
+    private int enPassantSquare = -1;
+    //Zobrist keys of the team turn, castling rights and en passant file
+    private transient long stateKey;
+
+    //undo records, one per applied move (see pushUndo for the layout)
+    private transient long[] undo = new long[64];
+    private transient int undoSize;
+    //scratch buffer reused by validMoves and makeMove, so even reads change the game
+    private transient MoveBuffer buffer = new MoveBuffer();
 
     public ChessGame() {
+        board = new ChessBoard();
+        board.resetBoard();
+        setState(TeamColor.WHITE, ALL_CASTLING, -1);
+    }
 
+    /**
+     * Creates a game in the given position, with no move history (see setPosition)
+     */
+    public ChessGame(ChessBoard board, TeamColor teamTurn, int castlingRights, int enPassantSquare) {
+        this.board = board;
+        setState(teamTurn, castlingRights & ALL_CASTLING, enPassantSquare);
+    }
+
+    /**
+     * Creates an independent copy of another game, including its undo history,
+     * so the copy can be searched or played on another thread
+     */
+    public ChessGame(ChessGame other) {
+        board = new ChessBoard(other.board);
+        teamTurn = other.teamTurn;
+        castlingRights = other.castlingRights;
+        enPassantSquare = other.enPassantSquare;
+        stateKey = other.stateKey;
+        undo = other.undo.clone();
+        undoSize = other.undoSize;
     }
 
     /**
      * @return Which team's turn it is
      */
     public TeamColor getTeamTurn() {
-        throw new RuntimeException("Not implemented");
+        return teamTurn;
     }
 
     /**
@@ -27,7 +103,7 @@ public class ChessGame {
      * @param team the team whose turn it is
      */
     public void setTeamTurn(TeamColor team) {
-        throw new RuntimeException("Not implemented");
+        setState(team, castlingRights, enPassantSquare);
     }
 
     /**
@@ -35,7 +111,14 @@ public class ChessGame {
      */
     public enum TeamColor {
         WHITE,
-        BLACK
+        BLACK;
+
+        /**
+         * @return the other team
+         */
+        public TeamColor opponent() {
+            return (this == WHITE) ? BLACK : WHITE;
+        }
     }
 
     /**
@@ -46,7 +129,88 @@ public class ChessGame {
      * startPosition
      */
     public Collection<ChessMove> validMoves(ChessPosition startPosition) {
-        throw new RuntimeException("Not implemented");
+        int square = startPosition.toSquare();
+        if (board.getPiece(square) == null) {
+            return null;
+        }
+        buffer.clear();
+        generateLegalMoves(square, buffer);
+        HashSet<ChessMove> moves = new HashSet<>();
+        buffer.addTo(moves, 0);
+        return moves;
+    }
+
+    /**
+     * Appends the legal moves of the piece on a square to out as packed ints,
+     * including castling and en passant
+     */
+    public void generateLegalMoves(int square, MoveBuffer out) {
+        LegalMoveGenerator.generate(this, board.getPiece(square).getTeamColor(), 1L << square, out);
+    }
+
+    /**
+     * Appends every legal move of a team to out as packed ints
+     */
+    public void generateLegalMoves(TeamColor teamColor, MoveBuffer out) {
+        LegalMoveGenerator.generate(this, teamColor, -1L, out);
+    }
+
+    /**
+     * Gets every legal move of a team, whether or not it is their turn
+     *
+     * @param teamColor which team to get moves for
+     * @return the team's legal moves, empty if it has none
+     */
+    public Collection<ChessMove> legalMoves(TeamColor teamColor) {
+        buffer.clear();
+        generateLegalMoves(teamColor, buffer);
+        ArrayList<ChessMove> moves = new ArrayList<>(buffer.size());
+        buffer.addTo(moves, 0);
+        return moves;
+    }
+
+    /**
+     * Appends the moves of the piece on a square to out, including castling and
+     * en passant, without checking whether they leave the king in check
+     */
+    public void generatePseudoLegalMoves(int square, MoveBuffer out) {
+        ChessPiece piece = board.getPiece(square);
+        piece.generateMoves(board, square, out);
+        TeamColor color = piece.getTeamColor();
+        //en passant belongs to the side to move only
+        if (piece.getPieceType() == ChessPiece.PieceType.PAWN && color == teamTurn && enPassantSquare >= 0
+                && (AttackTables.pawnAttacks(color, square) & (1L << enPassantSquare)) != 0) {
+            out.add(PackedMove.of(square, enPassantSquare, null, PackedMove.CAPTURE | PackedMove.EN_PASSANT));
+        }
+        if (piece.getPieceType() == ChessPiece.PieceType.KING) {
+            addCastlingMoves(square, color, out);
+        }
+    }
+
+    void addCastlingMoves(int kingSquare, TeamColor color, MoveBuffer out) {
+        int home = (color == TeamColor.WHITE) ? 4 : 60;
+        int kingside = (color == TeamColor.WHITE) ? WHITE_KINGSIDE : BLACK_KINGSIDE;
+        int queenside = (color == TeamColor.WHITE) ? WHITE_QUEENSIDE : BLACK_QUEENSIDE;
+        if (kingSquare != home || (castlingRights & (kingside | queenside)) == 0) {
+            return;
+        }
+        TeamColor enemy = color.opponent();
+        if (board.isSquareAttacked(home, enemy)) {
+            return;
+        }
+        long occupied = board.getOccupied();
+        long rooks = board.getPieces(color, ChessPiece.PieceType.ROOK);
+        //rook in the corner, nothing between, king doesn't pass through check
+        if ((castlingRights & kingside) != 0 && (rooks & (1L << (home + 3))) != 0
+                && (occupied & (3L << (home + 1))) == 0
+                && !board.isSquareAttacked(home + 1, enemy) && !board.isSquareAttacked(home + 2, enemy)) {
+            out.add(PackedMove.of(home, home + 2, null, PackedMove.CASTLE));
+        }
+        if ((castlingRights & queenside) != 0 && (rooks & (1L << (home - 4))) != 0
+                && (occupied & (7L << (home - 3))) == 0
+                && !board.isSquareAttacked(home - 1, enemy) && !board.isSquareAttacked(home - 2, enemy)) {
+            out.add(PackedMove.of(home, home - 2, null, PackedMove.CASTLE));
+        }
     }
 
     /**
@@ -56,7 +220,124 @@ public class ChessGame {
      * @throws InvalidMoveException if move is invalid
      */
     public void makeMove(ChessMove move) throws InvalidMoveException {
-        throw new RuntimeException("Not implemented");
+        ChessPosition start = move.getStartPosition();
+        if (start.getRow() < 1 || start.getRow() > 8 || start.getColumn() < 1 || start.getColumn() > 8) {
+            throw new InvalidMoveException("Start position is off the board: " + move);
+        }
+        ChessPiece piece = board.getPiece(start);
+        if (piece == null) {
+            throw new InvalidMoveException("No piece at " + start);
+        }
+        if (piece.getTeamColor() != teamTurn) {
+            throw new InvalidMoveException("It is not " + piece.getTeamColor() + "'s turn");
+        }
+        //find the legal move with the same squares and promotion, which carries the flags
+        int target = PackedMove.of(move);
+        buffer.clear();
+        generateLegalMoves(start.toSquare(), buffer);
+        for (int i = 0; i < buffer.size(); i++) {
+            if ((buffer.get(i) & PackedMove.MOVE_MASK) == target) {
+                makeMove(buffer.get(i));
+                return;
+            }
+        }
+        throw new InvalidMoveException("Illegal move: " + move);
+    }
+
+    /**
+     * Applies a packed move from generateLegalMoves/generatePseudoLegalMoves to the
+     * board in place, without validating it. Undo it with unmakeMove.
+     *
+     * @param move packed move, including its flags
+     */
+    public void makeMove(int move) {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        ChessPiece piece = board.removePiece(from);
+        TeamColor color = piece.getTeamColor();
+
+        //en passant takes the pawn behind the target square
+        int capturedSquare = PackedMove.hasFlag(move, PackedMove.EN_PASSANT) ? enPassantVictim(to, color) : to;
+        ChessPiece captured = board.removePiece(capturedSquare);
+        ChessPiece.PieceType promotion = PackedMove.promotion(move);
+        board.addPiece(to, (promotion == null) ? piece : ChessPiece.of(color, promotion));
+        if (PackedMove.hasFlag(move, PackedMove.CASTLE)) {
+            board.addPiece(castlingRookTo(from, to), board.removePiece(castlingRookFrom(from, to)));
+        }
+
+        pushUndo(move, captured, piece);
+        setState(color.opponent(), castlingRights & CASTLING_KEPT[from] & CASTLING_KEPT[to],
+                PackedMove.hasFlag(move, PackedMove.DOUBLE_PUSH) ? (from + to) >>> 1 : -1);
+    }
+
+    /**
+     * Takes back the last move applied with makeMove, restoring the board,
+     * castling rights, en passant square and team turn
+     */
+    public void unmakeMove() {
+        if (undoSize == 0) {
+            throw new IllegalStateException("No move to unmake");
+        }
+        long record = undo[--undoSize];
+        int move = (int) (record & 0x7FFFF);
+        int capturedIndex = (int) ((record >>> 19) & 0xF);
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        ChessPiece piece = ChessPiece.of((int) ((record >>> 34) & 0xF));
+
+        board.removePiece(to);
+        board.addPiece(from, piece);
+        if (PackedMove.hasFlag(move, PackedMove.CASTLE)) {
+            board.addPiece(castlingRookFrom(from, to), board.removePiece(castlingRookTo(from, to)));
+        }
+        if (capturedIndex != 0) {
+            int capturedSquare = PackedMove.hasFlag(move, PackedMove.EN_PASSANT)
+                    ? enPassantVictim(to, piece.getTeamColor()) : to;
+            board.addPiece(capturedSquare, ChessPiece.of(capturedIndex - 1));
+        }
+
+        setState(TEAMS[(int) ((record >>> 38) & 1)], (int) ((record >>> 23) & 0xF),
+                (int) ((record >>> 27) & 0x7F) - 1);
+    }
+
+    //swaps the old state's keys out of stateKey and the new state's in
+    private void setState(TeamColor turn, int rights, int enPassant) {
+        stateKey ^= Zobrist.side(teamTurn) ^ Zobrist.castling(castlingRights) ^ Zobrist.enPassant(enPassantSquare);
+        teamTurn = turn;
+        castlingRights = rights;
+        enPassantSquare = enPassant;
+        stateKey ^= Zobrist.side(teamTurn) ^ Zobrist.castling(castlingRights) ^ Zobrist.enPassant(enPassantSquare);
+    }
+
+    /**
+     * Undo record layout: bits 0-18 the packed move, 19-22 the captured piece
+     * index + 1 (0 for none), 23-26 the castling rights, 27-33 the en passant
+     * square + 1, 34-37 the moved piece index and bit 38 the team turn.
+     */
+    private void pushUndo(int move, ChessPiece captured, ChessPiece piece) {
+        if (undoSize == undo.length) {
+            undo = Arrays.copyOf(undo, undoSize * 2);
+        }
+        long capturedIndex = (captured == null) ? 0
+                : ChessBoard.pieceIndex(captured.getTeamColor(), captured.getPieceType()) + 1;
+        undo[undoSize++] = (move & 0x7FFFFL)
+                | (capturedIndex << 19)
+                | ((long) castlingRights << 23)
+                | ((long) (enPassantSquare + 1) << 27)
+                | ((long) ChessBoard.pieceIndex(piece.getTeamColor(), piece.getPieceType()) << 34)
+                | ((long) teamTurn.ordinal() << 38);
+    }
+
+    private static int enPassantVictim(int to, TeamColor color) {
+        return (color == TeamColor.WHITE) ? to - 8 : to + 8;
+    }
+
+    private static int castlingRookFrom(int from, int to) {
+        return (to > from) ? from + 3 : from - 4;
+    }
+
+    private static int castlingRookTo(int from, int to) {
+        return (to > from) ? from + 1 : from - 1;
     }
 
     /**
@@ -66,7 +347,8 @@ public class ChessGame {
      * @return True if the specified team is in check
      */
     public boolean isInCheck(TeamColor teamColor) {
-        throw new RuntimeException("Not implemented");
+        long kings = board.getPieces(teamColor, ChessPiece.PieceType.KING);
+        return kings != 0 && board.isSquareAttacked(Long.numberOfTrailingZeros(kings), teamColor.opponent());
     }
 
     /**
@@ -76,7 +358,7 @@ public class ChessGame {
      * @return True if the specified team is in checkmate
      */
     public boolean isInCheckmate(TeamColor teamColor) {
-        throw new RuntimeException("Not implemented");
+        return isInCheck(teamColor) && !hasLegalMove(teamColor);
     }
 
     /**
@@ -87,7 +369,13 @@ public class ChessGame {
      * @return True if the specified team is in stalemate, otherwise false
      */
     public boolean isInStalemate(TeamColor teamColor) {
-        throw new RuntimeException("Not implemented");
+        return !isInCheck(teamColor) && !hasLegalMove(teamColor);
+    }
+
+    private boolean hasLegalMove(TeamColor teamColor) {
+        buffer.clear();
+        generateLegalMoves(teamColor, buffer);
+        return buffer.size() > 0;
     }
 
     /**
@@ -96,7 +384,77 @@ public class ChessGame {
      * @param board the new board to use
      */
     public void setBoard(ChessBoard board) {
-        throw new RuntimeException("Not implemented");
+        this.board = board;
+        setState(teamTurn, inferCastlingRights(board), -1);
+        undoSize = 0;
+    }
+
+    /**
+     * Sets the whole position at once: the board, the team to move, castling
+     * rights and en passant square. The move history is cleared.
+     *
+     * @param castlingRights  WHITE_KINGSIDE etc. OR'd together
+     * @param enPassantSquare the square a pawn just skipped over, or -1
+     */
+    public void setPosition(ChessBoard board, TeamColor teamTurn, int castlingRights, int enPassantSquare) {
+        this.board = board;
+        setState(teamTurn, castlingRights & ALL_CASTLING, enPassantSquare);
+        undoSize = 0;
+    }
+
+    /**
+     * @return how many moves have been made since the position was set up
+     */
+    public int getHistorySize() {
+        return undoSize;
+    }
+
+    /**
+     * @param ply 0 for the first move made since the position was set up
+     * @return that move, packed with its flags
+     */
+    public int getHistoryMove(int ply) {
+        if (ply < 0 || ply >= undoSize) {
+            throw new IndexOutOfBoundsException("No move " + ply + " in a history of " + undoSize);
+        }
+        return (int) (undo[ply] & 0x7FFFF);
+    }
+
+    /**
+     * @return why the state can't go with the board, or null if it can: each
+     * castling right needs its king and rook at home, and an en passant square
+     * must be empty with an opposing pawn in front that could just have skipped it
+     */
+    static String stateProblem(ChessBoard board, TeamColor turn, int castlingRights, int enPassantSquare) {
+        if ((castlingRights & ~inferCastlingRights(board)) != 0) {
+            return "castling rights without the king and rook at home";
+        }
+        if (enPassantSquare != -1) {
+            int expectedRow = (turn == TeamColor.WHITE) ? 6 : 3;
+            int pawnSquare = enPassantSquare + ((turn == TeamColor.WHITE) ? -8 : 8);
+            if (enPassantSquare < 0 || enPassantSquare > 63 || ChessBoard.rowOf(enPassantSquare) != expectedRow
+                    || board.getPiece(enPassantSquare) != null
+                    || board.getPiece(pawnSquare) != ChessPiece.of(turn.opponent(), ChessPiece.PieceType.PAWN)) {
+                return "no pawn just skipped the en passant square";
+            }
+        }
+        return null;
+    }
+
+    //a king and rook still on their home squares are assumed not to have moved
+    private static int inferCastlingRights(ChessBoard board) {
+        int rights = 0;
+        long whiteRooks = board.getPieces(TeamColor.WHITE, ChessPiece.PieceType.ROOK);
+        long blackRooks = board.getPieces(TeamColor.BLACK, ChessPiece.PieceType.ROOK);
+        if ((board.getPieces(TeamColor.WHITE, ChessPiece.PieceType.KING) & (1L << 4)) != 0) {
+            rights |= ((whiteRooks & (1L << 7)) != 0) ? WHITE_KINGSIDE : 0;
+            rights |= ((whiteRooks & 1L) != 0) ? WHITE_QUEENSIDE : 0;
+        }
+        if ((board.getPieces(TeamColor.BLACK, ChessPiece.PieceType.KING) & (1L << 60)) != 0) {
+            rights |= ((blackRooks & (1L << 63)) != 0) ? BLACK_KINGSIDE : 0;
+            rights |= ((blackRooks & (1L << 56)) != 0) ? BLACK_QUEENSIDE : 0;
+        }
+        return rights;
     }
 
     /**
@@ -105,6 +463,47 @@ public class ChessGame {
      * @return the chessboard
      */
     public ChessBoard getBoard() {
-        throw new RuntimeException("Not implemented");
+        return board;
+    }
+
+    /**
+     * @return the castling rights still available, as WHITE_KINGSIDE etc. OR'd together
+     */
+    public int getCastlingRights() {
+        return castlingRights;
+    }
+
+    /**
+     * @return the square a pawn skipped over with a double push on the last move,
+     * or -1 if en passant is not available
+     */
+    public int getEnPassantSquare() {
+        return enPassantSquare;
+    }
+
+    /**
+     * Gets the 64-bit Zobrist key of the position: the board's pieces, the team
+     * turn, castling rights and en passant file. It is kept up to date as moves
+     * are made, so it is cheap enough to key caches and repetition checks.
+     *
+     * @return the position's Zobrist key
+     */
+    public long getZobristKey() {
+        return board.getZobristKey() ^ stateKey;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        ChessGame that = (ChessGame) o;
+        return castlingRights == that.castlingRights && enPassantSquare == that.enPassantSquare
+                && teamTurn == that.teamTurn && Objects.equals(board, that.board);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(getZobristKey());
     }
 }
@@ -9,6 +9,22 @@ import java.util.Objects;
  * signature of the existing methods.
  */
 public class ChessMove {
+    //one canonical instance per from/to/promotion, indexed by the PackedMove bits
+    private static final ChessMove[] MOVES = new ChessMove[8 << 12];
+    private static final ChessPiece.PieceType[] PROMOTIONS = {null, ChessPiece.PieceType.QUEEN,
+            ChessPiece.PieceType.BISHOP, ChessPiece.PieceType.KNIGHT, ChessPiece.PieceType.ROOK};
+
+    static {
+        for (ChessPiece.PieceType promotion : PROMOTIONS) {
+            for (int from = 0; from < 64; from++) {
+                for (int to = 0; to < 64; to++) {
+                    MOVES[PackedMove.of(from, to, promotion, 0)] =
+                            new ChessMove(ChessPosition.of(from), ChessPosition.of(to), promotion);
+                }
+            }
+        }
+    }
+
     private final ChessPosition startPosition;
     private final ChessPosition endPosition;
     private final ChessPiece.PieceType promotionPiece;
@@ -20,6 +36,43 @@ public class ChessMove {
         this.promotionPiece = promotionPiece;
     }
 
+    /**
+     * @return the shared instance for a move between on-board positions, or a
+     * new move otherwise
+     */
+    public static ChessMove of(ChessPosition startPosition, ChessPosition endPosition,
+                               ChessPiece.PieceType promotionPiece) {
+        if (isOnBoard(startPosition) && isOnBoard(endPosition)) {
+            ChessMove move = MOVES[PackedMove.of(startPosition.toSquare(), endPosition.toSquare(), promotionPiece, 0)];
+            if (move != null) {
+                return move;
+            }
+        }
+        return new ChessMove(startPosition, endPosition, promotionPiece);
+    }
+
+    /**
+     * @param packed a move packed as in PackedMove; flag bits are ignored
+     * @return the shared instance for the move
+     */
+    public static ChessMove of(int packed) {
+        ChessMove move = MOVES[packed & PackedMove.MOVE_MASK];
+        return (move != null) ? move : PackedMove.toNewChessMove(packed);
+    }
+
+    /**
+     * @return this move as 16 bits: 6 bits start square, 6 bits end square and
+     * 3 bits promotion piece (see PackedMove)
+     */
+    public short toPacked() {
+        return (short) PackedMove.of(this);
+    }
+
+    private static boolean isOnBoard(ChessPosition position) {
+        return position != null && position.getRow() >= 1 && position.getRow() <= 8
+                && position.getColumn() >= 1 && position.getColumn() <= 8;
+    }
+
     /**
      * @return ChessPosition of starting location
      */
@@ -51,6 +104,9 @@ public class ChessMove {
 
     @Override
     public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
         if (o == null || getClass() != o.getClass()) {
             return false;
         }
@@ -60,6 +116,8 @@ public class ChessMove {
 
     @Override
     public int hashCode() {
-        return Objects.hash(startPosition, endPosition, promotionPiece);
+        int result = Objects.hashCode(startPosition);
+        result = 31 * result + Objects.hashCode(endPosition);
+        return 31 * result + PackedMove.promotionCode(promotionPiece);
     }
 }
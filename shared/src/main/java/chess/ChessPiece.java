@@ -16,11 +16,42 @@ public class ChessPiece {
     private final ChessGame.TeamColor pieceColor;
     private final PieceType type;
 
+    private static final ChessPiece[] PIECES = new ChessPiece[12];
+
+    static {
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            for (PieceType type : PieceType.values()) {
+                PIECES[ChessBoard.pieceIndex(color, type)] = new ChessPiece(color, type);
+            }
+        }
+    }
+
+    //shared, stateless rules so pieceMoves allocates no offsets or tables
+    //lefttop, top, righttop, left, right, bottomleft, down, bottomright
+    private static final Rule BISHOP_RULE = new Rule(1, new int[][]{{1, -1}, {-1, 1}, {-1, -1}, {1, 1}});
+    private static final Rule ROOK_RULE = new Rule(1, new int[][]{{1, 0}, {-1, 0}, {0, 1}, {0, -1}});
+    private static final Rule KNIGHT_RULE = new Rule(0, AttackTables.KNIGHT_OFFSETS, AttackTables.KNIGHT);
+    private static final Rule QUEEN_RULE = new Rule(1, new int[][]{{1, -1}, {-1, 1}, {-1, -1}, {1, 1},{1, 0}, {-1, 0}, {0, 1}, {0, -1}});
+    private static final Rule KING_RULE = new Rule(0, AttackTables.KING_OFFSETS, AttackTables.KING);
+    //Wforward, Wdoubleforward, WattackL, WattackR, Bforward, Bdoubleforward, BattackL, BattackR
+    private static final Rule PAWN_RULE = new Rule(2, new int[][]{{+1,-1}});
+
     public ChessPiece(ChessGame.TeamColor pieceColor, PieceType type) {
         this.pieceColor = pieceColor;
         this.type = type;
     }
 
+    /**
+     * @return the shared instance of a piece, indexed the same way as the board's bitboards
+     */
+    public static ChessPiece of(ChessGame.TeamColor pieceColor, PieceType type) {
+        return PIECES[ChessBoard.pieceIndex(pieceColor, type)];
+    }
+
+    static ChessPiece of(int pieceIndex) {
+        return PIECES[pieceIndex];
+    }
+
     /**
      * The various different chess piece options
      */
@@ -56,18 +87,29 @@ public class ChessPiece {
      * @return Collection of valid moves
      */
     public Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition myPosition) {
-        Rule rule = switch (getPieceType()){
-            //lefttop, top, righttop, left, right, bottomleft, down, bottomright
-            case BISHOP-> new Rule(1, new int[][]{{1, -1}, {-1, 1}, {-1, -1}, {1, 1}});
-            case ROOK-> new Rule(1, new int[][]{{1, 0}, {-1, 0}, {0, 1}, {0, -1}});
-            case KNIGHT-> new Rule(0, new int[][]{{1,-2},{2,-1},{2,1},{1,2},{-1,2},{-2,1},{-2,-1},{-1,-2}});
-            case QUEEN-> new Rule(1, new int[][]{{1, -1}, {-1, 1}, {-1, -1}, {1, 1},{1, 0}, {-1, 0}, {0, 1}, {0, -1}});
-            case KING-> new Rule(0, new int[][]{{1, -1}, {1,0},{1,1}, {0,-1},{0,1},{-1,-1},{-1,0},{-1,1}});
-            //Wforward, Wdoubleforward, WattackL, WattackR, Bforward, Bdoubleforward, BattackL, BattackR
-            case PAWN-> new Rule(2, new int[][]{{+1,-1}});
-            default -> null;
+        return rule().getMoves(board,myPosition);
+    }
+
+    /**
+     * Writes the same moves as pieceMoves into a reusable buffer as packed ints
+     * (see PackedMove), so hot loops can generate moves without garbage
+     *
+     * @param square the square index (0-63) this piece is on
+     * @param out    buffer the moves are appended to
+     */
+    public void generateMoves(ChessBoard board, int square, MoveBuffer out) {
+        rule().generate(board, square, out);
+    }
+
+    private Rule rule() {
+        return switch (getPieceType()){
+            case BISHOP-> BISHOP_RULE;
+            case ROOK-> ROOK_RULE;
+            case KNIGHT-> KNIGHT_RULE;
+            case QUEEN-> QUEEN_RULE;
+            case KING-> KING_RULE;
+            case PAWN-> PAWN_RULE;
         };
-        return rule.getMoves(board,myPosition);
     }
 
 
@@ -1,7 +1,5 @@
 package chess;
 
-import java.util.Objects;
-
 /**
  * Represents a single square position on a chess board
  * <p>
@@ -9,6 +7,15 @@ import java.util.Objects;
  * signature of the existing methods.
  */
 public class ChessPosition {
+    //one canonical instance per square, indexed like ChessBoard squares
+    private static final ChessPosition[] SQUARES = new ChessPosition[64];
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            SQUARES[square] = new ChessPosition(ChessBoard.rowOf(square), ChessBoard.columnOf(square));
+        }
+    }
+
     private final int row;
     private final int col;
 
@@ -17,6 +24,32 @@ public class ChessPosition {
         this.col = col;
     }
 
+    /**
+     * @return the shared instance for an on-board row and column, or a new
+     * position if it is off the board
+     */
+    public static ChessPosition of(int row, int col) {
+        if (row < 1 || row > 8 || col < 1 || col > 8) {
+            return new ChessPosition(row, col);
+        }
+        return SQUARES[ChessBoard.square(row, col)];
+    }
+
+    /**
+     * @param square the square index (0-63)
+     * @return the shared instance for the square
+     */
+    public static ChessPosition of(int square) {
+        return SQUARES[square];
+    }
+
+    /**
+     * @return the square index (0-63) of this position
+     */
+    public int toSquare() {
+        return ChessBoard.square(row, col);
+    }
+
     /**
      * @return which row this position is in
      * 1 codes for the bottom row
@@ -40,6 +73,9 @@ public class ChessPosition {
 
     @Override
     public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
         if (o == null || getClass() != o.getClass()) {
             return false;
         }
@@ -49,6 +85,6 @@ public class ChessPosition {
 
     @Override
     public int hashCode() {
-        return Objects.hash(row, col);
+        return 31 * row + col;
     }
 }
@@ -0,0 +1,276 @@
+package chess;
+
+/**
+ * Reads and writes positions in Forsyth-Edwards Notation. The parser checks
+ * the whole text first, then places the shared ChessPiece instances straight
+ * onto the board, so parsing into an existing game allocates nothing; bulk
+ * imports can reuse one game for every position.
+ * <p>
+ * ChessGame doesn't keep the halfmove clock or move number. They are checked
+ * and dropped when parsing (and may be left off, as in EPD), and formatting
+ * always writes "0 1".
+ */
+public final class Fen {
+    public static final String START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    //indexed by ChessBoard.pieceIndex
+    private static final String PIECE_LETTERS = "KQBNRPkqbnrp";
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+    private static final String CASTLING_LETTERS = "KQkq";
+    private static final int[] CASTLING_RIGHTS = {ChessGame.WHITE_KINGSIDE, ChessGame.WHITE_QUEENSIDE,
+            ChessGame.BLACK_KINGSIDE, ChessGame.BLACK_QUEENSIDE};
+    //the king and rook squares each castling right needs, in CASTLING_LETTERS order
+    private static final int[] CASTLING_KINGS = {4, 4, 60, 60};
+    private static final int[] CASTLING_ROOKS = {7, 0, 63, 56};
+
+    private Fen() {
+    }
+
+    /**
+     * @throws IllegalArgumentException if the text isn't a legal FEN position
+     */
+    public static ChessGame parse(CharSequence fen) {
+        ChessGame game = new ChessGame(new ChessBoard(), ChessGame.TeamColor.WHITE, 0, -1);
+        parse(fen, game);
+        return game;
+    }
+
+    /**
+     * Sets up the game from the text, reusing its board. The game's move
+     * history is cleared. The whole text is checked before the game is touched,
+     * so a bad one leaves the game as it was.
+     *
+     * @throws IllegalArgumentException if the text isn't a legal FEN position
+     */
+    public static void parse(CharSequence fen, ChessGame game) {
+        int length = fen.length();
+        int i = 0;
+
+        //piece placement, eighth rank first; only checked here and noted in
+        //bitboards for the checks below, and placed once the whole text is good
+        long occupied = 0;
+        long kings = 0;
+        long rooks = 0;
+        long pawns = 0;
+        long white = 0;
+        int row = 8;
+        int col = 1;
+        while (true) {
+            if (i == length) {
+                throw error(fen, i, "the placement ends early");
+            }
+            char c = fen.charAt(i++);
+            if (c == ' ') {
+                break;
+            }
+            if (c == '/') {
+                if (col != 9 || row == 1) {
+                    throw error(fen, i - 1, "rank " + row + " isn't 8 squares");
+                }
+                row--;
+                col = 1;
+            }
+            else if (c >= '1' && c <= '8') {
+                col += c - '0';
+                if (col > 9) {
+                    throw error(fen, i - 1, "rank " + row + " isn't 8 squares");
+                }
+            }
+            else {
+                int index = PIECE_LETTERS.indexOf(c);
+                if (index < 0) {
+                    throw error(fen, i - 1, "'" + c + "' isn't a piece");
+                }
+                if (col > 8) {
+                    throw error(fen, i - 1, "rank " + row + " isn't 8 squares");
+                }
+                long bit = 1L << ChessBoard.square(row, col++);
+                occupied |= bit;
+                white |= (index < 6) ? bit : 0;
+                switch (TYPES[index % 6]) {
+                    case KING -> kings |= bit;
+                    case ROOK -> rooks |= bit;
+                    case PAWN -> pawns |= bit;
+                    default -> {
+                    }
+                }
+            }
+        }
+        if (row != 1 || col != 9) {
+            throw error(fen, i - 1, "the placement isn't 8 ranks of 8 squares");
+        }
+        if (Long.bitCount(kings & white) != 1 || Long.bitCount(kings & ~white) != 1) {
+            throw error(fen, 0, "each side needs one king");
+        }
+
+        //side to move
+        ChessGame.TeamColor turn;
+        char side = (i < length) ? fen.charAt(i++) : ' ';
+        if (side == 'w') {
+            turn = ChessGame.TeamColor.WHITE;
+        }
+        else if (side == 'b') {
+            turn = ChessGame.TeamColor.BLACK;
+        }
+        else {
+            throw error(fen, i - 1, "the side to move isn't w or b");
+        }
+        i = expectSpace(fen, i);
+
+        //castling rights, each letter at most once
+        int castling = 0;
+        if (i < length && fen.charAt(i) == '-') {
+            i++;
+        }
+        else {
+            int start = i;
+            for (; i < length && fen.charAt(i) != ' '; i++) {
+                int right = CASTLING_LETTERS.indexOf(fen.charAt(i));
+                if (right < 0 || (castling & CASTLING_RIGHTS[right]) != 0) {
+                    throw error(fen, i, "bad castling rights");
+                }
+                long own = (right < 2) ? white : ~white;
+                if ((kings & own & (1L << CASTLING_KINGS[right])) == 0
+                        || (rooks & own & (1L << CASTLING_ROOKS[right])) == 0) {
+                    throw error(fen, i, "castling right " + fen.charAt(i) + " without the king and rook at home");
+                }
+                castling |= CASTLING_RIGHTS[right];
+            }
+            if (i == start) {
+                throw error(fen, i, "missing castling rights");
+            }
+        }
+        i = expectSpace(fen, i);
+
+        //en passant target square
+        int enPassant = -1;
+        if (i < length && fen.charAt(i) == '-') {
+            i++;
+        }
+        else {
+            if (i + 2 > length) {
+                throw error(fen, i, "missing en passant square");
+            }
+            int epCol = fen.charAt(i) - 'a' + 1;
+            int epRow = fen.charAt(i + 1) - '0';
+            //the skipped square is behind a pawn of the side that just moved
+            int expectedRow = (turn == ChessGame.TeamColor.WHITE) ? 6 : 3;
+            int pawnRow = (turn == ChessGame.TeamColor.WHITE) ? 5 : 4;
+            if (epCol < 1 || epCol > 8 || epRow != expectedRow) {
+                throw error(fen, i, "bad en passant square");
+            }
+            long theirs = (turn == ChessGame.TeamColor.WHITE) ? ~white : white;
+            if ((pawns & theirs & (1L << ChessBoard.square(pawnRow, epCol))) == 0
+                    || (occupied & (1L << ChessBoard.square(epRow, epCol))) != 0) {
+                throw error(fen, i, "no pawn just skipped the en passant square");
+            }
+            enPassant = ChessBoard.square(epRow, epCol);
+            i += 2;
+        }
+
+        //halfmove clock and move number, optional
+        if (i < length) {
+            i = skipNumber(fen, expectSpace(fen, i));
+            i = skipNumber(fen, expectSpace(fen, i));
+            if (i != length) {
+                throw error(fen, i, "unexpected text after the move number");
+            }
+        }
+
+        //the text is good, so only now change the game
+        ChessBoard board = game.getBoard();
+        board.clear();
+        int square = ChessBoard.square(8, 1);
+        for (int c = 0; fen.charAt(c) != ' '; c++) {
+            char letter = fen.charAt(c);
+            if (letter == '/') {
+                //back to column 1 of the rank below
+                square -= 16;
+            }
+            else if (letter >= '1' && letter <= '8') {
+                square += letter - '0';
+            }
+            else {
+                board.addPiece(square++, ChessPiece.of(PIECE_LETTERS.indexOf(letter)));
+            }
+        }
+        game.setPosition(board, turn, castling, enPassant);
+    }
+
+    public static String format(ChessGame game) {
+        StringBuilder out = new StringBuilder(90);
+        format(game, out);
+        return out.toString();
+    }
+
+    /**
+     * Appends the game's position to out
+     */
+    public static void format(ChessGame game, StringBuilder out) {
+        ChessBoard board = game.getBoard();
+        for (int row = 8; row >= 1; row--) {
+            int empty = 0;
+            for (int col = 1; col <= 8; col++) {
+                ChessPiece piece = board.getPiece(ChessBoard.square(row, col));
+                if (piece == null) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    out.append((char) ('0' + empty));
+                    empty = 0;
+                }
+                out.append(PIECE_LETTERS.charAt(ChessBoard.pieceIndex(piece.getTeamColor(), piece.getPieceType())));
+            }
+            if (empty > 0) {
+                out.append((char) ('0' + empty));
+            }
+            if (row > 1) {
+                out.append('/');
+            }
+        }
+        out.append(game.getTeamTurn() == ChessGame.TeamColor.WHITE ? " w " : " b ");
+
+        int castling = game.getCastlingRights();
+        if (castling == 0) {
+            out.append('-');
+        }
+        for (int right = 0; right < CASTLING_RIGHTS.length; right++) {
+            if ((castling & CASTLING_RIGHTS[right]) != 0) {
+                out.append(CASTLING_LETTERS.charAt(right));
+            }
+        }
+
+        int enPassant = game.getEnPassantSquare();
+        if (enPassant < 0) {
+            out.append(" -");
+        }
+        else {
+            out.append(' ').append((char) ('a' + ChessBoard.columnOf(enPassant) - 1))
+                    .append((char) ('0' + ChessBoard.rowOf(enPassant)));
+        }
+        out.append(" 0 1");
+    }
+
+    private static int expectSpace(CharSequence fen, int i) {
+        if (i >= fen.length() || fen.charAt(i) != ' ') {
+            throw error(fen, i, "expected a space");
+        }
+        return i + 1;
+    }
+
+    private static int skipNumber(CharSequence fen, int i) {
+        int start = i;
+        while (i < fen.length() && fen.charAt(i) >= '0' && fen.charAt(i) <= '9') {
+            i++;
+        }
+        if (i == start) {
+            throw error(fen, i, "expected a number");
+        }
+        return i;
+    }
+
+    private static IllegalArgumentException error(CharSequence fen, int index, String problem) {
+        return new IllegalArgumentException("Bad FEN at " + index + ": " + problem + " in \"" + fen + "\"");
+    }
+}
@@ -0,0 +1,252 @@
+package chess;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * The JSON shape of a game, written the same way by Gson (through the adapter
+ * ChessGame is annotated with) and by websocket.MessageCodec:
+ * <pre>
+ * {"board":{"board":[[a1 ... h1], ... [a8 ... h8]]},
+ *  "teamTurn":"WHITE","castlingRights":15,"enPassantSquare":-1}
+ * </pre>
+ * The board is 8 rows of 8 squares, rank 1 first, each null or
+ * {"pieceColor":"WHITE","type":"ROOK"}. Only the position is written; the
+ * bitboards, keys and scores are rebuilt from it when it is read, so they
+ * never have to be trusted. A missing castlingRights is worked out from the
+ * kings and rooks on their home squares, as ChessGame.setBoard does.
+ */
+public final class GameJson {
+    public static final String BOARD = "board";
+    public static final String SQUARES = "board";
+    public static final String PIECE_COLOR = "pieceColor";
+    public static final String PIECE_TYPE = "type";
+    public static final String TEAM_TURN = "teamTurn";
+    public static final String CASTLING_RIGHTS = "castlingRights";
+    public static final String EN_PASSANT_SQUARE = "enPassantSquare";
+
+    private static final ChessGame.TeamColor[] TEAMS = ChessGame.TeamColor.values();
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
+    private GameJson() {
+    }
+
+    /**
+     * Sets up a game from the fields read from JSON
+     *
+     * @param castlingRights the rights, or -1 if the JSON left them out
+     * @throws IllegalArgumentException if the castling rights or en passant
+     *                                  square can't go with the board
+     */
+    public static ChessGame toGame(ChessBoard board, ChessGame.TeamColor teamTurn, int castlingRights,
+                                   int enPassantSquare) {
+        if (castlingRights < 0) {
+            ChessGame game = new ChessGame(board, teamTurn, 0, -1);
+            game.setBoard(board);
+            castlingRights = game.getCastlingRights();
+        }
+        String problem = ChessGame.stateProblem(board, teamTurn, castlingRights, enPassantSquare);
+        if (problem != null) {
+            throw new IllegalArgumentException("Bad game JSON: " + problem);
+        }
+        return new ChessGame(board, teamTurn, castlingRights, enPassantSquare);
+    }
+
+    /**
+     * Gson's adapter for ChessGame
+     */
+    public static final class GameAdapter extends TypeAdapter<ChessGame> {
+        @Override
+        public void write(JsonWriter out, ChessGame game) throws IOException {
+            if (game == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            if (game.getBoard() != null) {
+                out.name(BOARD);
+                writeBoard(out, game.getBoard());
+            }
+            if (game.getTeamTurn() != null) {
+                out.name(TEAM_TURN).value(game.getTeamTurn().name());
+            }
+            out.name(CASTLING_RIGHTS).value(game.getCastlingRights());
+            out.name(EN_PASSANT_SQUARE).value(game.getEnPassantSquare());
+            out.endObject();
+        }
+
+        @Override
+        public ChessGame read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            ChessBoard board = null;
+            ChessGame.TeamColor turn = ChessGame.TeamColor.WHITE;
+            int castling = -1;
+            int enPassant = -1;
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (in.peek() == JsonToken.NULL) {
+                    in.nextNull();
+                }
+                else if (name.equals(BOARD)) {
+                    board = readBoard(in);
+                }
+                else if (name.equals(TEAM_TURN)) {
+                    turn = readEnum(in, TEAMS);
+                }
+                else if (name.equals(CASTLING_RIGHTS)) {
+                    castling = in.nextInt();
+                }
+                else if (name.equals(EN_PASSANT_SQUARE)) {
+                    enPassant = in.nextInt();
+                }
+                else {
+                    in.skipValue();
+                }
+            }
+            in.endObject();
+            if (board == null) {
+                throw new JsonParseException("game without a board");
+            }
+            try {
+                return toGame(board, turn, castling, enPassant);
+            }
+            catch (IllegalArgumentException e) {
+                throw new JsonParseException(e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Gson's adapter for ChessBoard, writing just the board part of the game
+     * shape: {"board":[[a1 ... h1], ... [a8 ... h8]]}
+     */
+    public static final class BoardAdapter extends TypeAdapter<ChessBoard> {
+        @Override
+        public void write(JsonWriter out, ChessBoard board) throws IOException {
+            if (board == null) {
+                out.nullValue();
+                return;
+            }
+            writeBoard(out, board);
+        }
+
+        @Override
+        public ChessBoard read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            return readBoard(in);
+        }
+    }
+
+    static void writeBoard(JsonWriter out, ChessBoard board) throws IOException {
+        out.beginObject();
+        out.name(SQUARES);
+        out.beginArray();
+        for (int row = 1; row <= 8; row++) {
+            out.beginArray();
+            for (int col = 1; col <= 8; col++) {
+                ChessPiece piece = board.getPiece(ChessBoard.square(row, col));
+                if (piece == null) {
+                    out.nullValue();
+                }
+                else {
+                    out.beginObject();
+                    out.name(PIECE_COLOR).value(piece.getTeamColor().name());
+                    out.name(PIECE_TYPE).value(piece.getPieceType().name());
+                    out.endObject();
+                }
+            }
+            out.endArray();
+        }
+        out.endArray();
+        out.endObject();
+    }
+
+    static ChessBoard readBoard(JsonReader in) throws IOException {
+        ChessBoard board = new ChessBoard();
+        in.beginObject();
+        while (in.hasNext()) {
+            if (!in.nextName().equals(SQUARES) || in.peek() == JsonToken.NULL) {
+                in.skipValue();
+                continue;
+            }
+            in.beginArray();
+            int row = 0;
+            while (in.hasNext()) {
+                if (++row > 8) {
+                    throw new JsonParseException("board with more than 8 rows");
+                }
+                in.beginArray();
+                int col = 0;
+                while (in.hasNext()) {
+                    if (++col > 8) {
+                        throw new JsonParseException("row " + row + " with more than 8 squares");
+                    }
+                    if (in.peek() == JsonToken.NULL) {
+                        in.nextNull();
+                    }
+                    else {
+                        board.addPiece(ChessBoard.square(row, col), readPiece(in));
+                    }
+                }
+                in.endArray();
+                if (col != 8) {
+                    throw new JsonParseException("row " + row + " with " + col + " squares");
+                }
+            }
+            in.endArray();
+            if (row != 8) {
+                throw new JsonParseException("board with " + row + " rows");
+            }
+        }
+        in.endObject();
+        return board;
+    }
+
+    private static ChessPiece readPiece(JsonReader in) throws IOException {
+        ChessGame.TeamColor color = null;
+        ChessPiece.PieceType type = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+            }
+            else if (name.equals(PIECE_COLOR)) {
+                color = readEnum(in, TEAMS);
+            }
+            else if (name.equals(PIECE_TYPE)) {
+                type = readEnum(in, TYPES);
+            }
+            else {
+                in.skipValue();
+            }
+        }
+        in.endObject();
+        if (color == null || type == null) {
+            throw new JsonParseException("piece without a color and type");
+        }
+        return ChessPiece.of(color, type);
+    }
+
+    private static <E extends Enum<E>> E readEnum(JsonReader in, E[] constants) throws IOException {
+        String name = in.nextString();
+        for (E constant : constants) {
+            if (constant.name().equals(name)) {
+                return constant;
+            }
+        }
+        throw new JsonParseException("unknown constant " + name);
+    }
+}
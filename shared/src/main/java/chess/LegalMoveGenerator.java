@@ -0,0 +1,143 @@
+package chess;
+
+/**
+ * Generates only legal moves by working out, before any move is generated,
+ * which enemy pieces give check, which of our pieces are pinned to the king and
+ * which squares a non-king move must land on to answer a check. Moves that fail
+ * those masks are dropped without being played, so only king moves (tested
+ * against attacks with the king lifted off) and en passant (played and taken
+ * back) need explicit verification.
+ */
+final class LegalMoveGenerator {
+
+    private LegalMoveGenerator() {
+    }
+
+    /**
+     * Appends the legal moves of every piece of a team standing on fromMask to out
+     *
+     * @param fromMask bitboard of the squares whose pieces to generate for
+     */
+    static void generate(ChessGame game, ChessGame.TeamColor us, long fromMask, MoveBuffer out) {
+        ChessBoard board = game.getBoard();
+        ChessGame.TeamColor them = us.opponent();
+        long kings = board.getPieces(us, ChessPiece.PieceType.KING);
+        int king = (kings == 0) ? -1 : Long.numberOfTrailingZeros(kings);
+
+        //with no king on the board nothing can be illegal
+        long checkers = 0;
+        long evasions = -1L;
+        long pinned = 0;
+        if (king >= 0) {
+            checkers = board.getAttackers(king, them);
+            pinned = pinnedPieces(board, king, us, them);
+            if (Long.bitCount(checkers) > 1) {
+                //double check: only the king can move
+                evasions = 0;
+            }
+            else if (checkers != 0) {
+                //capture the checker or block its ray
+                evasions = checkers | AttackTables.between(king, Long.numberOfTrailingZeros(checkers));
+            }
+        }
+
+        long pieces = board.getPieces(us) & fromMask;
+        while (pieces != 0) {
+            int square = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            ChessPiece piece = board.getPiece(square);
+
+            if (square == king) {
+                addKingMoves(game, board, king, them, checkers, out);
+                continue;
+            }
+            if (evasions == 0) {
+                continue;
+            }
+            int start = out.size();
+            piece.generateMoves(board, square, out);
+            //a pinned piece may only slide along the line through its king
+            long allowed = evasions;
+            if ((pinned & (1L << square)) != 0) {
+                allowed &= AttackTables.line(king, square);
+            }
+            if (allowed != -1L) {
+                keepTargets(out, start, allowed);
+            }
+            if (piece.getPieceType() == ChessPiece.PieceType.PAWN) {
+                addEnPassant(game, board, square, us, out);
+            }
+        }
+    }
+
+    private static void addKingMoves(ChessGame game, ChessBoard board, int king, ChessGame.TeamColor them,
+                                     long checkers, MoveBuffer out) {
+        int start = out.size();
+        board.getPiece(king).generateMoves(board, king, out);
+        //lift the king off so sliders see through the square it leaves
+        long occupied = board.getOccupied() & ~(1L << king);
+        int kept = start;
+        for (int i = start; i < out.size(); i++) {
+            int move = out.get(i);
+            if (!board.isSquareAttacked(PackedMove.to(move), them, occupied)) {
+                out.set(kept++, move);
+            }
+        }
+        out.truncate(kept);
+        if (checkers == 0) {
+            game.addCastlingMoves(king, them.opponent(), out);
+        }
+    }
+
+    private static void addEnPassant(ChessGame game, ChessBoard board, int square, ChessGame.TeamColor us,
+                                     MoveBuffer out) {
+        int target = game.getEnPassantSquare();
+        if (target < 0 || us != game.getTeamTurn() || (AttackTables.pawnAttacks(us, square) & (1L << target)) == 0) {
+            return;
+        }
+        //two pawns leave the rank at once, so just play it and look
+        int move = PackedMove.of(square, target, null, PackedMove.CAPTURE | PackedMove.EN_PASSANT);
+        game.makeMove(move);
+        boolean legal = !game.isInCheck(us);
+        game.unmakeMove();
+        if (legal) {
+            out.add(move);
+        }
+    }
+
+    private static void keepTargets(MoveBuffer out, int start, long allowed) {
+        int kept = start;
+        for (int i = start; i < out.size(); i++) {
+            int move = out.get(i);
+            if ((allowed & (1L << PackedMove.to(move))) != 0) {
+                out.set(kept++, move);
+            }
+        }
+        out.truncate(kept);
+    }
+
+    /**
+     * @return bitboard of our pieces that are the only blocker between our king
+     * and an enemy slider
+     */
+    static long pinnedPieces(ChessBoard board, int king, ChessGame.TeamColor us, ChessGame.TeamColor them) {
+        long enemies = board.getPieces(them);
+        long queens = board.getPieces(them, ChessPiece.PieceType.QUEEN);
+        //enemy sliders that would hit the king if only enemy pieces could block
+        long snipers = (SlidingAttacks.rookAttacks(king, enemies)
+                & (board.getPieces(them, ChessPiece.PieceType.ROOK) | queens))
+                | (SlidingAttacks.bishopAttacks(king, enemies)
+                & (board.getPieces(them, ChessPiece.PieceType.BISHOP) | queens));
+        long ours = board.getPieces(us);
+        long pinned = 0;
+        while (snipers != 0) {
+            int sniper = Long.numberOfTrailingZeros(snipers);
+            snipers &= snipers - 1;
+            long blockers = AttackTables.between(king, sniper) & board.getOccupied();
+            if (Long.bitCount(blockers) == 1 && (blockers & ours) != 0) {
+                pinned |= blockers;
+            }
+        }
+        return pinned;
+    }
+}
@@ -0,0 +1,62 @@
+package chess;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * A reusable, growable list of packed moves (see {@link PackedMove}).
+ * <p>
+ * Callers that generate moves in a loop keep one buffer and either clear it or
+ * truncate it back to an earlier size, so move generation creates no garbage.
+ */
+public class MoveBuffer {
+    private int[] moves;
+    private int size;
+
+    public MoveBuffer() {
+        this(256);
+    }
+
+    public MoveBuffer(int capacity) {
+        moves = new int[capacity];
+    }
+
+    public void add(int move) {
+        if (size == moves.length) {
+            moves = Arrays.copyOf(moves, size * 2);
+        }
+        moves[size++] = move;
+    }
+
+    public int get(int index) {
+        return moves[index];
+    }
+
+    public void set(int index, int move) {
+        moves[index] = move;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Drops every move added after the buffer had the given size
+     */
+    public void truncate(int newSize) {
+        size = newSize;
+    }
+
+    /**
+     * Converts the moves from index start onward into ChessMoves
+     */
+    public void addTo(Collection<ChessMove> out, int start) {
+        for (int i = start; i < size; i++) {
+            out.add(PackedMove.toChessMove(moves[i]));
+        }
+    }
+}
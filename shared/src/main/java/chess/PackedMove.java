@@ -0,0 +1,105 @@
+package chess;
+
+/**
+ * Helpers for moves packed into a single int, as written into a {@link MoveBuffer}.
+ * <p>
+ * Bits 0-5 hold the start square, bits 6-11 the end square, bits 12-14 the
+ * promotion piece (0 for none, otherwise the PieceType ordinal + 1) and the
+ * bits from 15 up hold flags describing the move.
+ */
+public final class PackedMove {
+    public static final int CAPTURE = 1 << 15;
+    public static final int DOUBLE_PUSH = 1 << 16;
+    public static final int EN_PASSANT = 1 << 17;
+    public static final int CASTLE = 1 << 18;
+
+    //from, to and promotion: everything a ChessMove holds
+    public static final int MOVE_MASK = 0x7FFF;
+
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
+    private PackedMove() {
+    }
+
+    /**
+     * @return a packed move with no promotion and no flags
+     */
+    public static int of(int from, int to) {
+        return from | (to << 6);
+    }
+
+    /**
+     * @param promotion the promotion piece, or null
+     * @param flags     any of the flag constants OR'd together
+     * @return the packed move
+     */
+    public static int of(int from, int to, ChessPiece.PieceType promotion, int flags) {
+        return from | (to << 6) | (promotionCode(promotion) << 12) | flags;
+    }
+
+    /**
+     * @return the packed form of a ChessMove, without flags
+     */
+    public static int of(ChessMove move) {
+        return of(ChessBoard.square(move.getStartPosition().getRow(), move.getStartPosition().getColumn()),
+                ChessBoard.square(move.getEndPosition().getRow(), move.getEndPosition().getColumn()),
+                move.getPromotionPiece(), 0);
+    }
+
+    public static int from(int move) {
+        return move & 0x3F;
+    }
+
+    public static int to(int move) {
+        return (move >>> 6) & 0x3F;
+    }
+
+    /**
+     * @return the promotion piece, or null if the move is not a promotion
+     * @throws IllegalArgumentException if the promotion bits name no piece
+     */
+    public static ChessPiece.PieceType promotion(int move) {
+        int code = (move >>> 12) & 0x7;
+        if (code > TYPES.length) {
+            throw new IllegalArgumentException("Bad promotion code " + code + " in packed move");
+        }
+        return (code == 0) ? null : TYPES[code - 1];
+    }
+
+    public static boolean hasFlag(int move, int flag) {
+        return (move & flag) != 0;
+    }
+
+    /**
+     * @return the shared ChessMove this packed move describes
+     */
+    public static ChessMove toChessMove(int move) {
+        return ChessMove.of(move);
+    }
+
+    static ChessMove toNewChessMove(int move) {
+        return new ChessMove(ChessPosition.of(from(move)), ChessPosition.of(to(move)), promotion(move));
+    }
+
+    /**
+     * @return the move in coordinate notation, e.g. "e2e4" or "e7e8q"
+     */
+    public static String toString(int move) {
+        StringBuilder text = new StringBuilder(5);
+        appendSquare(text, from(move));
+        appendSquare(text, to(move));
+        ChessPiece.PieceType promotion = promotion(move);
+        if (promotion != null) {
+            text.append(promotion == ChessPiece.PieceType.KNIGHT ? 'n' : Character.toLowerCase(promotion.name().charAt(0)));
+        }
+        return text.toString();
+    }
+
+    private static void appendSquare(StringBuilder text, int square) {
+        text.append((char) ('a' + (square & 7))).append((char) ('1' + (square >>> 3)));
+    }
+
+    static int promotionCode(ChessPiece.PieceType promotion) {
+        return (promotion == null) ? 0 : promotion.ordinal() + 1;
+    }
+}
@@ -0,0 +1,160 @@
+package chess;
+
+/**
+ * Material plus piece-square values, in centipawns, for the middlegame and the
+ * endgame, and how much each piece counts towards the game phase. ChessBoard
+ * keeps running totals of these as pieces are added and removed, so a
+ * position's score never needs a scan of the board.
+ * <p>
+ * The tables are the well known "simplified evaluation function" ones, written
+ * out from white's side with the eighth rank first; black uses them mirrored.
+ */
+public final class PieceSquareTables {
+    //phase when every knight, bishop, rook and queen is on the board
+    public static final int MAX_PHASE = 24;
+
+    //indexed by PieceType ordinal: KING, QUEEN, BISHOP, KNIGHT, ROOK, PAWN
+    private static final int[] MIDGAME_VALUES = {0, 900, 330, 320, 500, 100};
+    private static final int[] ENDGAME_VALUES = {0, 950, 340, 300, 540, 130};
+    private static final int[] PHASE_WEIGHTS = {0, 4, 1, 1, 2, 0};
+
+    private static final int[] KING_MIDGAME = {
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -20, -30, -30, -40, -40, -30, -30, -20,
+            -10, -20, -20, -20, -20, -20, -20, -10,
+            20, 20, 0, 0, 0, 0, 20, 20,
+            20, 30, 10, 0, 0, 10, 30, 20};
+    private static final int[] KING_ENDGAME = {
+            -50, -40, -30, -20, -20, -30, -40, -50,
+            -30, -20, -10, 0, 0, -10, -20, -30,
+            -30, -10, 20, 30, 30, 20, -10, -30,
+            -30, -10, 30, 40, 40, 30, -10, -30,
+            -30, -10, 30, 40, 40, 30, -10, -30,
+            -30, -10, 20, 30, 30, 20, -10, -30,
+            -30, -30, 0, 0, 0, 0, -30, -30,
+            -50, -30, -30, -30, -30, -30, -30, -50};
+    private static final int[] QUEEN = {
+            -20, -10, -10, -5, -5, -10, -10, -20,
+            -10, 0, 0, 0, 0, 0, 0, -10,
+            -10, 0, 5, 5, 5, 5, 0, -10,
+            -5, 0, 5, 5, 5, 5, 0, -5,
+            0, 0, 5, 5, 5, 5, 0, -5,
+            -10, 5, 5, 5, 5, 5, 0, -10,
+            -10, 0, 5, 0, 0, 0, 0, -10,
+            -20, -10, -10, -5, -5, -10, -10, -20};
+    private static final int[] BISHOP = {
+            -20, -10, -10, -10, -10, -10, -10, -20,
+            -10, 0, 0, 0, 0, 0, 0, -10,
+            -10, 0, 5, 10, 10, 5, 0, -10,
+            -10, 5, 5, 10, 10, 5, 5, -10,
+            -10, 0, 10, 10, 10, 10, 0, -10,
+            -10, 10, 10, 10, 10, 10, 10, -10,
+            -10, 5, 0, 0, 0, 0, 5, -10,
+            -20, -10, -10, -10, -10, -10, -10, -20};
+    private static final int[] KNIGHT = {
+            -50, -40, -30, -30, -30, -30, -40, -50,
+            -40, -20, 0, 0, 0, 0, -20, -40,
+            -30, 0, 10, 15, 15, 10, 0, -30,
+            -30, 5, 15, 20, 20, 15, 5, -30,
+            -30, 0, 15, 20, 20, 15, 0, -30,
+            -30, 5, 10, 15, 15, 10, 5, -30,
+            -40, -20, 0, 5, 5, 0, -20, -40,
+            -50, -40, -30, -30, -30, -30, -40, -50};
+    private static final int[] ROOK = {
+            0, 0, 0, 0, 0, 0, 0, 0,
+            5, 10, 10, 10, 10, 10, 10, 5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            0, 0, 0, 5, 5, 0, 0, 0};
+    private static final int[] PAWN_MIDGAME = {
+            0, 0, 0, 0, 0, 0, 0, 0,
+            50, 50, 50, 50, 50, 50, 50, 50,
+            10, 10, 20, 30, 30, 20, 10, 10,
+            5, 5, 10, 25, 25, 10, 5, 5,
+            0, 0, 0, 20, 20, 0, 0, 0,
+            5, -5, -10, 0, 0, -10, -5, 5,
+            5, 10, 10, -20, -20, 10, 10, 5,
+            0, 0, 0, 0, 0, 0, 0, 0};
+    //in the endgame a pawn is worth more the closer it is to promoting
+    private static final int[] PAWN_ENDGAME = {
+            0, 0, 0, 0, 0, 0, 0, 0,
+            80, 80, 80, 80, 80, 80, 80, 80,
+            50, 50, 50, 50, 50, 50, 50, 50,
+            30, 30, 30, 30, 30, 30, 30, 30,
+            15, 15, 15, 15, 15, 15, 15, 15,
+            5, 5, 5, 5, 5, 5, 5, 5,
+            0, 0, 0, 0, 0, 0, 0, 0,
+            0, 0, 0, 0, 0, 0, 0, 0};
+
+    //indexed by ChessBoard.pieceIndex, then square; signed so white is positive
+    private static final int[][] MIDGAME = new int[12][64];
+    private static final int[][] ENDGAME = new int[12][64];
+    private static final int[] PHASE = new int[12];
+
+    static {
+        int[][] midgameTables = {KING_MIDGAME, QUEEN, BISHOP, KNIGHT, ROOK, PAWN_MIDGAME};
+        int[][] endgameTables = {KING_ENDGAME, QUEEN, BISHOP, KNIGHT, ROOK, PAWN_ENDGAME};
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            boolean white = color == ChessGame.TeamColor.WHITE;
+            for (ChessPiece.PieceType type : ChessPiece.PieceType.values()) {
+                int index = ChessBoard.pieceIndex(color, type);
+                int t = type.ordinal();
+                PHASE[index] = PHASE_WEIGHTS[t];
+                for (int square = 0; square < 64; square++) {
+                    //the tables start at a8, so white flips the rank and black reads them as is
+                    int tableSquare = white ? square ^ 56 : square;
+                    int sign = white ? 1 : -1;
+                    MIDGAME[index][square] = sign * (MIDGAME_VALUES[t] + midgameTables[t][tableSquare]);
+                    ENDGAME[index][square] = sign * (ENDGAME_VALUES[t] + endgameTables[t][tableSquare]);
+                }
+            }
+        }
+    }
+
+    private PieceSquareTables() {
+    }
+
+    /**
+     * @return the piece's middlegame value on the square, positive for white
+     */
+    public static int midgame(int pieceIndex, int square) {
+        return MIDGAME[pieceIndex][square];
+    }
+
+    /**
+     * @return the piece's endgame value on the square, positive for white
+     */
+    public static int endgame(int pieceIndex, int square) {
+        return ENDGAME[pieceIndex][square];
+    }
+
+    public static int midgame(ChessPiece piece, int square) {
+        return MIDGAME[ChessBoard.pieceIndex(piece.getTeamColor(), piece.getPieceType())][square];
+    }
+
+    public static int endgame(ChessPiece piece, int square) {
+        return ENDGAME[ChessBoard.pieceIndex(piece.getTeamColor(), piece.getPieceType())][square];
+    }
+
+    /**
+     * @return the piece type's middlegame material value, without any square
+     * bonus; this is the value the engine ranks trades by
+     */
+    public static int material(ChessPiece.PieceType type) {
+        return MIDGAME_VALUES[type.ordinal()];
+    }
+
+    public static int phase(int pieceIndex) {
+        return PHASE[pieceIndex];
+    }
+
+    public static int phase(ChessPiece piece) {
+        return PHASE[ChessBoard.pieceIndex(piece.getTeamColor(), piece.getPieceType())];
+    }
+}
@@ -6,98 +6,110 @@ import java.util.HashSet;
 public class Rule {
     private final int repeats;
     private final int[][] coordinates;
+    //per-square target masks for King, Knight (repeats == 0)
+    private final long[] attacks;
+    //which rays a slider (repeats == 1) walks
+    private final boolean diagonal;
+    private final boolean orthogonal;
 
     public Rule(int repeats, int[][] coordinates) {
+        this(repeats, coordinates, (repeats == 0) ? AttackTables.leaperTable(coordinates) : null);
+    }
+
+    public Rule(int repeats, int[][] coordinates, long[] attacks) {
         //making these variables accessible to the whole class
         this.repeats = repeats;
         this.coordinates = coordinates;
+        this.attacks = attacks;
+        boolean diagonal = false;
+        boolean orthogonal = false;
+        for (int[] coordinate : coordinates) {
+            if (coordinate[0] != 0 && coordinate[1] != 0) {
+                diagonal = true;
+            }
+            else {
+                orthogonal = true;
+            }
+        }
+        this.diagonal = diagonal;
+        this.orthogonal = orthogonal;
     }
 
     public HashSet<ChessMove> getMoves(ChessBoard board, ChessPosition myPosition) {
-        //moves set
+        //thin wrapper over the packed generator
+        MoveBuffer buffer = new MoveBuffer(32);
+        generate(board, ChessBoard.square(myPosition.getRow(), myPosition.getColumn()), buffer);
         HashSet<ChessMove> moves = new HashSet<>();
-        //row and column
-        int myRow = myPosition.getRow();
-        int myCol = myPosition.getColumn();
+        buffer.addTo(moves, 0);
+        return moves;
+    }
+
+    /**
+     * Writes the moves of the piece on mySquare into out as packed ints
+     * (see PackedMove) without allocating anything.
+     */
+    public void generate(ChessBoard board, int mySquare, MoveBuffer out) {
         //piece and color
-        ChessPiece myPiece = board.getPiece(myPosition);
+        ChessPiece myPiece = board.getPiece(mySquare);
         ChessGame.TeamColor myColor = myPiece.getTeamColor();
+        long own = board.getPieces(myColor);
+        long enemy = board.getOccupied() & ~own;
 
+        //King, Knight: table lookup minus our own pieces
+        if (repeats == 0) {
+            addTargets(out, mySquare, attacks[mySquare] & ~own, enemy);
+            return;
+        }
 
         //isPawn
         if (repeats == 2) {
             //ternary operators for universal variables (save lines & easier to remember)
-            int verticalMov = (myColor == ChessGame.TeamColor.WHITE) ? +1 : -1;
+            int verticalMov = (myColor == ChessGame.TeamColor.WHITE) ? +8 : -8;
             int startRow = (myColor == ChessGame.TeamColor.WHITE) ? 2 : 7;
             int promoRow = (myColor == ChessGame.TeamColor.WHITE) ? 8 : 1;
-
-            //two vertical move options
-            int singleFRow = myRow + verticalMov;
-            int doubleFRow = myRow + (verticalMov * 2);
+            boolean promo = ChessBoard.rowOf(mySquare) + (verticalMov >> 3) == promoRow;
 
             //Single forward
-            if (isBound(singleFRow, myCol) && isEmpty(board, singleFRow, myCol)) {
+            int singleF = mySquare + verticalMov;
+            if (singleF >= 0 && singleF < 64 && (board.getOccupied() & (1L << singleF)) == 0) {
                 //Promo
-                if (singleFRow == promoRow){
-                    promotions(moves, myPosition, new ChessPosition(singleFRow, myCol),true);
+                if (promo) {
+                    promotions(out, mySquare, singleF, 0);
                 }
                 //Double forward or Single forward no promo
                 else {
-                    moves.add(new ChessMove(myPosition, new ChessPosition(singleFRow, myCol), null));
+                    out.add(PackedMove.of(mySquare, singleF));
                     //Double forward
-                    if (startRow == myRow && isEmpty(board, doubleFRow, myCol)) {
-                        moves.add(new ChessMove(myPosition, new ChessPosition(doubleFRow, myCol), null));
+                    int doubleF = singleF + verticalMov;
+                    if (startRow == ChessBoard.rowOf(mySquare) && (board.getOccupied() & (1L << doubleF)) == 0) {
+                        out.add(PackedMove.of(mySquare, doubleF, null, PackedMove.DOUBLE_PUSH));
                     }
                 }
             }
-            int attackRow = myRow+verticalMov;
-            int attackColR = myCol-1;
-            int attackColL = myCol+1;
-
             //attack
-            attack(moves, board, myColor, myPosition, attackRow, attackColR, promoRow);
-            attack(moves, board, myColor, myPosition, attackRow, attackColL, promoRow);
-        }
-
-
-        //iterates through potential moves
-        for (int[] coordinate : coordinates) {
-            int modifierRow = coordinate[0];
-            int modifierCol = coordinate[1];
-            int newRow = myRow + modifierRow;
-            int newCol = myCol + modifierCol;
-
-
-            //everything except Pawn
-            if (repeats == 0 || repeats == 1) {
-                //moves for King, Knight
-                if (repeats == 0) {
-                    if (isBound(newRow, newCol) && isAvailable(board, newRow, newCol, myColor)) {
-                        //King, Knight
-                        moves.add(new ChessMove(myPosition, new ChessPosition(newRow, newCol), null));
-                    }
-                    continue;
+            long targets = AttackTables.pawnAttacks(myColor, mySquare) & enemy;
+            while (targets != 0) {
+                int target = Long.numberOfTrailingZeros(targets);
+                targets &= targets - 1;
+                if (promo) {
+                    promotions(out, mySquare, target, PackedMove.CAPTURE);
                 }
-                //moves for Rook, Bishop, and Queen
-                while (isBound(newRow, newCol)) {
-                    //Empty
-                    if (isEmpty(board,newRow, newCol)) {
-                        moves.add(new ChessMove(myPosition, new ChessPosition(newRow, newCol), null));
-                    }
-                    //Blocked
-                    else {
-                        if (isEnemy(board,newRow, newCol, myColor)) {
-                            moves.add(new ChessMove(myPosition, new ChessPosition(newRow, newCol), null));
-                        }
-                        //friend
-                        break;
-                    }
-                    newRow = modifierRow + newRow;
-                    newCol = modifierCol + newCol;
+                else {
+                    out.add(PackedMove.of(mySquare, target, null, PackedMove.CAPTURE));
                 }
             }
+            return;
         }
-        return moves;
+
+        //moves for Rook, Bishop, and Queen: magic lookup on the occupancy
+        long targets = 0;
+        if (diagonal) {
+            targets |= SlidingAttacks.bishopAttacks(mySquare, board.getOccupied());
+        }
+        if (orthogonal) {
+            targets |= SlidingAttacks.rookAttacks(mySquare, board.getOccupied());
+        }
+        addTargets(out, mySquare, targets & ~own, enemy);
     }
     public boolean isBound(int newRow, int newCol){
         return (newRow >= 1 && newRow <= 8 && newCol >= 1 && newCol <= 8);
@@ -106,32 +118,29 @@ public class Rule {
         return (isEmpty(board, newRow, newCol) || isEnemy(board, newRow, newCol, myColor));
     }
     public boolean isEnemy(ChessBoard board, int Row, int Col, ChessGame.TeamColor myColor) {
-        ChessPiece potentialPiece = board.getPiece(new ChessPosition(Row,Col));
-        return (!isEmpty(board,Row, Col) && (potentialPiece.getTeamColor() != myColor));
+        //enemy occupancy mask, no ChessPosition lookup needed
+        ChessGame.TeamColor enemy = (myColor == ChessGame.TeamColor.WHITE) ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+        return isBound(Row, Col) && (board.getPieces(enemy) & (1L << ChessBoard.square(Row, Col))) != 0;
     }
     public boolean isEmpty(ChessBoard board,int Row,int Col) {
         if (isBound(Row, Col)) {
-            ChessPiece potentialPiece = board.getPiece(new ChessPosition(Row, Col));
-            return (potentialPiece == null);
+            return (board.getOccupied() & (1L << ChessBoard.square(Row, Col))) == 0;
         }
         return false;
         }
-    public void promotions(HashSet<ChessMove> moves, ChessPosition myPosition, ChessPosition nextPosition, boolean promotion){
-        if (promotion) {
-            moves.add(new ChessMove(myPosition, nextPosition, ChessPiece.PieceType.QUEEN));
-            moves.add(new ChessMove(myPosition, nextPosition, ChessPiece.PieceType.BISHOP));
-            moves.add(new ChessMove(myPosition, nextPosition, ChessPiece.PieceType.KNIGHT));
-            moves.add(new ChessMove(myPosition, nextPosition, ChessPiece.PieceType.ROOK));
-        }
-        else {
-            moves.add(new ChessMove(myPosition, nextPosition, null));
-        }
+    public void promotions(MoveBuffer out, int mySquare, int nextSquare, int flags){
+        out.add(PackedMove.of(mySquare, nextSquare, ChessPiece.PieceType.QUEEN, flags));
+        out.add(PackedMove.of(mySquare, nextSquare, ChessPiece.PieceType.BISHOP, flags));
+        out.add(PackedMove.of(mySquare, nextSquare, ChessPiece.PieceType.KNIGHT, flags));
+        out.add(PackedMove.of(mySquare, nextSquare, ChessPiece.PieceType.ROOK, flags));
     }
-    public void attack(HashSet<ChessMove> moves, ChessBoard board, ChessGame.TeamColor myColor, ChessPosition myPosition, int row, int col, int promoRow){
-        if (isBound(row,col)) {
-            if (isEnemy(board, row, col, myColor)) {
-                promotions(moves, myPosition, new ChessPosition(row, col), (row == promoRow));
-            }
+    public void addTargets(MoveBuffer out, int mySquare, long targets, long enemy) {
+        //one move per set bit
+        while (targets != 0) {
+            int target = Long.numberOfTrailingZeros(targets);
+            long bit = targets & -targets;
+            targets &= targets - 1;
+            out.add(PackedMove.of(mySquare, target, null, ((enemy & bit) != 0) ? PackedMove.CAPTURE : 0));
         }
     }
-}
\ No newline at end of file
+}
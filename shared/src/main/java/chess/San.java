@@ -0,0 +1,216 @@
+package chess;
+
+/**
+ * Standard Algebraic Notation, as used in PGN movetext. Moves are read by
+ * matching what the text says (piece, destination, promotion and any
+ * disambiguating file or rank) against the game's legal moves, so anything
+ * that names exactly one legal move is accepted: "0-0" for "O-O", a missing
+ * capture "x", "e8Q" for "e8=Q" and trailing check or "!?" marks.
+ */
+public final class San {
+    //indexed by PieceType ordinal: KING, QUEEN, BISHOP, KNIGHT, ROOK; pawns have no letter
+    private static final String PIECE_LETTERS = "KQBNR";
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
+    private San() {
+    }
+
+    /**
+     * @param legal scratch space for the game's legal moves
+     * @return the packed legal move the text names
+     * @throws IllegalArgumentException if it names no legal move, or more than one
+     */
+    public static int parse(ChessGame game, CharSequence san, MoveBuffer legal) {
+        return parse(game, san, 0, san.length(), legal);
+    }
+
+    /**
+     * Same as parse, over the characters from start up to end
+     */
+    public static int parse(ChessGame game, CharSequence san, int start, int end, MoveBuffer legal) {
+        //drop check, mate and annotation marks
+        while (end > start && "+#!?".indexOf(san.charAt(end - 1)) >= 0) {
+            end--;
+        }
+        int textEnd = end;
+        ChessBoard board = game.getBoard();
+        ChessGame.TeamColor turn = game.getTeamTurn();
+        legal.clear();
+
+        if (isCastle(san, start, end)) {
+            LegalMoveGenerator.generate(game, turn, board.getPieces(turn, ChessPiece.PieceType.KING), legal);
+            //O-O is 3 characters and O-O-O is 5
+            boolean kingside = end - start == 3;
+            for (int i = 0; i < legal.size(); i++) {
+                int move = legal.get(i);
+                if (PackedMove.hasFlag(move, PackedMove.CASTLE)
+                        && (PackedMove.to(move) > PackedMove.from(move)) == kingside) {
+                    return move;
+                }
+            }
+            throw error(san, start, textEnd, "castling isn't legal");
+        }
+
+        int i = start;
+        ChessPiece.PieceType type = ChessPiece.PieceType.PAWN;
+        int letter = (i < end) ? PIECE_LETTERS.indexOf(san.charAt(i)) : -1;
+        if (letter >= 0) {
+            type = TYPES[letter];
+            i++;
+        }
+        ChessPiece.PieceType promotion = null;
+        if (end - i >= 3 && type == ChessPiece.PieceType.PAWN) {
+            int promoted = PIECE_LETTERS.indexOf(san.charAt(end - 1));
+            //K isn't a promotion, but it can't be mistaken for a rank either
+            if (promoted > 0) {
+                promotion = TYPES[promoted];
+                end -= (san.charAt(end - 2) == '=') ? 2 : 1;
+            }
+        }
+        if (end - i < 2) {
+            throw error(san, start, textEnd, "no destination square");
+        }
+        int to = square(san.charAt(end - 2), san.charAt(end - 1));
+        if (to < 0) {
+            throw error(san, start, textEnd, "bad destination square");
+        }
+        end -= 2;
+        if (end > i && san.charAt(end - 1) == 'x') {
+            end--;
+        }
+        //whatever is left disambiguates: a file, a rank or both
+        int fromCol = 0;
+        int fromRow = 0;
+        for (; i < end; i++) {
+            char c = san.charAt(i);
+            if (c >= 'a' && c <= 'h' && fromCol == 0) {
+                fromCol = c - 'a' + 1;
+            }
+            else if (c >= '1' && c <= '8' && fromRow == 0) {
+                fromRow = c - '0';
+            }
+            else {
+                throw error(san, start, textEnd, "unexpected '" + c + "'");
+            }
+        }
+
+        //only the named piece type's moves can match
+        LegalMoveGenerator.generate(game, turn, board.getPieces(turn, type), legal);
+        int found = 0;
+        for (int m = 0; m < legal.size(); m++) {
+            int move = legal.get(m);
+            int from = PackedMove.from(move);
+            if (PackedMove.to(move) != to || PackedMove.promotion(move) != promotion
+                    || (fromCol != 0 && ChessBoard.columnOf(from) != fromCol)
+                    || (fromRow != 0 && ChessBoard.rowOf(from) != fromRow)) {
+                continue;
+            }
+            if (found != 0) {
+                throw error(san, start, textEnd, "ambiguous");
+            }
+            found = move;
+        }
+        if (found == 0) {
+            throw error(san, start, textEnd, "not a legal move");
+        }
+        return found;
+    }
+
+    /**
+     * @param move a packed legal move in the game's current position
+     * @return the move in SAN, with a check or mate mark
+     */
+    public static String format(ChessGame game, int move) {
+        StringBuilder out = new StringBuilder(8);
+        MoveBuffer legal = new MoveBuffer();
+        game.generateLegalMoves(game.getTeamTurn(), legal);
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        ChessPiece.PieceType type = game.getBoard().getPiece(from).getPieceType();
+        boolean capture = PackedMove.hasFlag(move, PackedMove.CAPTURE);
+
+        if (PackedMove.hasFlag(move, PackedMove.CASTLE)) {
+            out.append((to > from) ? "O-O" : "O-O-O");
+        }
+        else if (type == ChessPiece.PieceType.PAWN) {
+            if (capture) {
+                out.append(file(from)).append('x');
+            }
+            out.append(file(to)).append(rank(to));
+            if (PackedMove.promotion(move) != null) {
+                out.append('=').append(PIECE_LETTERS.charAt(PackedMove.promotion(move).ordinal()));
+            }
+        }
+        else {
+            out.append(PIECE_LETTERS.charAt(type.ordinal()));
+            //name the file if that's enough, else the rank, else both
+            boolean clash = false;
+            boolean sameCol = false;
+            boolean sameRow = false;
+            for (int i = 0; i < legal.size(); i++) {
+                int other = PackedMove.from(legal.get(i));
+                if (other != from && PackedMove.to(legal.get(i)) == to
+                        && game.getBoard().getPiece(other).getPieceType() == type) {
+                    clash = true;
+                    sameCol |= ChessBoard.columnOf(other) == ChessBoard.columnOf(from);
+                    sameRow |= ChessBoard.rowOf(other) == ChessBoard.rowOf(from);
+                }
+            }
+            if (clash && (!sameCol || sameRow)) {
+                out.append(file(from));
+            }
+            if (clash && sameCol) {
+                out.append(rank(from));
+            }
+            if (capture) {
+                out.append('x');
+            }
+            out.append(file(to)).append(rank(to));
+        }
+
+        game.makeMove(move);
+        if (game.isInCheck(game.getTeamTurn())) {
+            legal.clear();
+            game.generateLegalMoves(game.getTeamTurn(), legal);
+            out.append((legal.size() == 0) ? '#' : '+');
+        }
+        game.unmakeMove();
+        return out.toString();
+    }
+
+    private static boolean isCastle(CharSequence san, int start, int end) {
+        int length = end - start;
+        if (length != 3 && length != 5) {
+            return false;
+        }
+        char zero = san.charAt(start);
+        if (zero != 'O' && zero != '0') {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            if (san.charAt(i) != (((i - start) % 2 == 0) ? zero : '-')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int square(char file, char rank) {
+        if (file < 'a' || file > 'h' || rank < '1' || rank > '8') {
+            return -1;
+        }
+        return ChessBoard.square(rank - '0', file - 'a' + 1);
+    }
+
+    private static char file(int square) {
+        return (char) ('a' + ChessBoard.columnOf(square) - 1);
+    }
+
+    private static char rank(int square) {
+        return (char) ('0' + ChessBoard.rowOf(square));
+    }
+
+    private static IllegalArgumentException error(CharSequence san, int start, int end, String problem) {
+        return new IllegalArgumentException("Bad SAN move " + san.subSequence(start, end) + ": " + problem);
+    }
+}
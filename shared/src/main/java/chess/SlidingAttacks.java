@@ -0,0 +1,154 @@
+package chess;
+
+/**
+ * Magic bitboard attack generator for rooks, bishops and queens.
+ * <p>
+ * For every square the relevant blockers (the ray squares, minus the board edge)
+ * are multiplied by a magic number and shifted down to an index into a
+ * precomputed table of attack sets, so a slider's attacks for any occupancy are
+ * one multiply and one array lookup. The magics are found once at class load
+ * with a fixed seed, and the tables are filled from the ray walker below.
+ */
+public final class SlidingAttacks {
+    static final int[][] ROOK_DIRECTIONS = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+    static final int[][] BISHOP_DIRECTIONS = {{1, -1}, {-1, 1}, {-1, -1}, {1, 1}};
+
+    private static final Magic[] ROOK = new Magic[64];
+    private static final Magic[] BISHOP = new Magic[64];
+
+    static {
+        long[] seed = {0x9E3779B97F4A7C15L};
+        for (int square = 0; square < 64; square++) {
+            ROOK[square] = Magic.find(square, ROOK_DIRECTIONS, seed);
+            BISHOP[square] = Magic.find(square, BISHOP_DIRECTIONS, seed);
+        }
+    }
+
+    private SlidingAttacks() {
+    }
+
+    /**
+     * @param square   the square the rook is on
+     * @param occupied bitboard of every occupied square
+     * @return bitboard of the squares the rook attacks, including the first blocker on each ray
+     */
+    public static long rookAttacks(int square, long occupied) {
+        return ROOK[square].attacks(occupied);
+    }
+
+    /**
+     * @param square   the square the bishop is on
+     * @param occupied bitboard of every occupied square
+     * @return bitboard of the squares the bishop attacks, including the first blocker on each ray
+     */
+    public static long bishopAttacks(int square, long occupied) {
+        return BISHOP[square].attacks(occupied);
+    }
+
+    /**
+     * @param square   the square the queen is on
+     * @param occupied bitboard of every occupied square
+     * @return bitboard of the squares the queen attacks, including the first blocker on each ray
+     */
+    public static long queenAttacks(int square, long occupied) {
+        return rookAttacks(square, occupied) | bishopAttacks(square, occupied);
+    }
+
+    /**
+     * Walks each ray square by square until it leaves the board or hits a piece.
+     * Slow, but used only to build the tables.
+     */
+    static long rayAttacks(int square, long occupied, int[][] directions) {
+        long attacks = 0;
+        for (int[] direction : directions) {
+            int row = ChessBoard.rowOf(square) + direction[0];
+            int col = ChessBoard.columnOf(square) + direction[1];
+            while (row >= 1 && row <= 8 && col >= 1 && col <= 8) {
+                long bit = 1L << ChessBoard.square(row, col);
+                attacks |= bit;
+                if ((occupied & bit) != 0) {
+                    break;
+                }
+                row += direction[0];
+                col += direction[1];
+            }
+        }
+        return attacks;
+    }
+
+    /**
+     * The squares whose occupancy can change a slider's attacks: every ray square
+     * except the last one before the edge.
+     */
+    static long relevantMask(int square, int[][] directions) {
+        long mask = 0;
+        for (int[] direction : directions) {
+            int row = ChessBoard.rowOf(square) + direction[0];
+            int col = ChessBoard.columnOf(square) + direction[1];
+            while (row + direction[0] >= 1 && row + direction[0] <= 8
+                    && col + direction[1] >= 1 && col + direction[1] <= 8) {
+                mask |= 1L << ChessBoard.square(row, col);
+                row += direction[0];
+                col += direction[1];
+            }
+        }
+        return mask;
+    }
+
+    private record Magic(long mask, long magic, int shift, long[] table) {
+
+        long attacks(long occupied) {
+            return table[(int) (((occupied & mask) * magic) >>> shift)];
+        }
+
+        static Magic find(int square, int[][] directions, long[] seed) {
+            long mask = relevantMask(square, directions);
+            int bits = Long.bitCount(mask);
+            int size = 1 << bits;
+
+            //every blocker subset of the mask and the attacks it produces
+            long[] occupancies = new long[size];
+            long[] reference = new long[size];
+            long subset = 0;
+            for (int i = 0; i < size; i++) {
+                occupancies[i] = subset;
+                reference[i] = rayAttacks(square, subset, directions);
+                subset = (subset - mask) & mask;
+            }
+
+            long[] table = new long[size];
+            int[] epoch = new int[size];
+            for (int attempt = 1; ; attempt++) {
+                //sparse candidates map blockers to indices with fewer collisions
+                long magic = next(seed) & next(seed) & next(seed);
+                if (Long.bitCount((mask * magic) & 0xFF00000000000000L) < 6) {
+                    continue;
+                }
+                boolean ok = true;
+                for (int i = 0; i < size && ok; i++) {
+                    int index = (int) ((occupancies[i] * magic) >>> (64 - bits));
+                    if (epoch[index] != attempt) {
+                        epoch[index] = attempt;
+                        table[index] = reference[i];
+                    }
+                    else if (table[index] != reference[i]) {
+                        ok = false;
+                    }
+                }
+                if (ok) {
+                    return new Magic(mask, magic, 64 - bits, table);
+                }
+            }
+        }
+
+        //xorshift64*
+        private static long next(long[] seed) {
+            long x = seed[0];
+            x ^= x >>> 12;
+            x ^= x << 25;
+            x ^= x >>> 27;
+            seed[0] = x;
+            return x * 0x2545F4914F6CDD1DL;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package chess;
+
+import java.util.SplittableRandom;
+
+/**
+ * Random 64-bit keys for Zobrist hashing. A position's key is the XOR of the
+ * keys of every piece on its square, plus keys for black to move, the castling
+ * rights and the en passant file, so a move updates it with a handful of XORs.
+ * The keys come from a fixed seed, so they are the same on every run.
+ */
+public final class Zobrist {
+    //indexed by ChessBoard.pieceIndex, then square
+    private static final long[][] PIECES = new long[12][64];
+    private static final long BLACK_TO_MOVE;
+    //indexed by the castling rights bits
+    private static final long[] CASTLING = new long[16];
+    private static final long[] EN_PASSANT_FILE = new long[8];
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x5EED_C0FFEEL);
+        for (long[] squares : PIECES) {
+            for (int square = 0; square < 64; square++) {
+                squares[square] = random.nextLong();
+            }
+        }
+        BLACK_TO_MOVE = random.nextLong();
+        //each right gets a key and combinations XOR them together
+        long[] rights = {random.nextLong(), random.nextLong(), random.nextLong(), random.nextLong()};
+        for (int mask = 0; mask < 16; mask++) {
+            for (int bit = 0; bit < 4; bit++) {
+                if ((mask & (1 << bit)) != 0) {
+                    CASTLING[mask] ^= rights[bit];
+                }
+            }
+        }
+        for (int file = 0; file < 8; file++) {
+            EN_PASSANT_FILE[file] = random.nextLong();
+        }
+    }
+
+    private Zobrist() {
+    }
+
+    public static long piece(int pieceIndex, int square) {
+        return PIECES[pieceIndex][square];
+    }
+
+    public static long piece(ChessPiece piece, int square) {
+        return PIECES[ChessBoard.pieceIndex(piece.getTeamColor(), piece.getPieceType())][square];
+    }
+
+    /**
+     * @return the key for the side to move, 0 for white
+     */
+    public static long side(ChessGame.TeamColor teamTurn) {
+        return (teamTurn == ChessGame.TeamColor.BLACK) ? BLACK_TO_MOVE : 0;
+    }
+
+    public static long castling(int castlingRights) {
+        return CASTLING[castlingRights];
+    }
+
+    /**
+     * @param enPassantSquare the en passant square, or -1 for none
+     */
+    public static long enPassant(int enPassantSquare) {
+        return (enPassantSquare < 0) ? 0 : EN_PASSANT_FILE[enPassantSquare & 7];
+    }
+
+    /**
+     * Computes a board's piece key from scratch
+     */
+    public static long compute(ChessBoard board) {
+        long key = 0;
+        long occupied = board.getOccupied();
+        while (occupied != 0) {
+            int square = Long.numberOfTrailingZeros(occupied);
+            occupied &= occupied - 1;
+            key ^= piece(board.getPiece(square), square);
+        }
+        return key;
+    }
+
+    /**
+     * Computes a game's full key (pieces, side to move, castling, en passant) from scratch
+     */
+    public static long compute(ChessGame game) {
+        return compute(game.getBoard()) ^ side(game.getTeamTurn()) ^ castling(game.getCastlingRights())
+                ^ enPassant(game.getEnPassantSquare());
+    }
+}
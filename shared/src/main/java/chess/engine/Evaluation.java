@@ -0,0 +1,63 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.PieceSquareTables;
+
+/**
+ * Static evaluation: material plus piece-square values, blended between the
+ * middlegame and endgame tables by how much material is left. ChessBoard keeps
+ * the totals up to date as pieces move, so evaluating a position is O(1).
+ */
+public final class Evaluation {
+    private Evaluation() {
+    }
+
+    /**
+     * @return the score from the point of view of the side to move
+     */
+    public static int evaluate(ChessGame game) {
+        ChessBoard board = game.getBoard();
+        int score = taper(board.getMidgameScore(), board.getEndgameScore(), board.getPhase());
+        return (game.getTeamTurn() == ChessGame.TeamColor.WHITE) ? score : -score;
+    }
+
+    /**
+     * Same as evaluate, but adds up every piece on the board instead of using
+     * the board's running totals
+     */
+    public static int evaluateFromScratch(ChessGame game) {
+        ChessBoard board = game.getBoard();
+        int midgame = 0;
+        int endgame = 0;
+        int phase = 0;
+        for (int square = 0; square < 64; square++) {
+            ChessPiece piece = board.getPiece(square);
+            if (piece != null) {
+                midgame += PieceSquareTables.midgame(piece, square);
+                endgame += PieceSquareTables.endgame(piece, square);
+                phase += PieceSquareTables.phase(piece);
+            }
+        }
+        int score = taper(midgame, endgame, phase);
+        return (game.getTeamTurn() == ChessGame.TeamColor.WHITE) ? score : -score;
+    }
+
+    /**
+     * Blends the two scores: all middlegame at full material, all endgame with
+     * only kings and pawns left
+     */
+    static int taper(int midgame, int endgame, int phase) {
+        phase = Math.min(phase, PieceSquareTables.MAX_PHASE);
+        return (midgame * phase + endgame * (PieceSquareTables.MAX_PHASE - phase)) / PieceSquareTables.MAX_PHASE;
+    }
+
+    /**
+     * @return the piece type's material value, used to rank trades; it is the
+     * same value the evaluation counts, so the two can't disagree
+     */
+    public static int value(ChessPiece.PieceType type) {
+        return PieceSquareTables.material(type);
+    }
+}
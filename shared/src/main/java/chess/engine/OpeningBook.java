@@ -0,0 +1,262 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.MoveBuffer;
+import chess.PackedMove;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * An opening book with Polyglot-style entries: 16-byte big-endian entries of
+ * position key, move and weight (plus 4 unused "learn" bytes), sorted by key
+ * as an unsigned number. The file is memory mapped and binary searched in
+ * place, so it never has to fit on the heap and opening it costs nothing.
+ * <p>
+ * Positions are keyed by this project's own Zobrist keys (see
+ * {@link ChessGame#getZobristKey()}), not Polyglot's published random table,
+ * so a Polyglot .bin can't be read. To make sure one is rejected rather than
+ * misread, the file starts with a 16-byte header: the magic "OGBOOK", a 2-byte
+ * version, the 4-byte entry count and 4 reserved bytes. Books are built with
+ * {@link #write}. Moves use Polyglot's encoding:
+ * bits 0-2 to column, 3-5 to row, 6-8 from column, 9-11 from row (all
+ * 0-based), 12-14 promotion (1 knight up to 4 queen), with castling written as
+ * the king taking its own rook.
+ * <p>
+ * Lookups only read the mapping, so one book can serve any number of threads.
+ */
+public class OpeningBook {
+    private static final int ENTRY_BYTES = 16;
+    private static final int HEADER_BYTES = 16;
+    private static final byte[] MAGIC = "OGBOOK".getBytes(StandardCharsets.US_ASCII);
+    private static final short VERSION = 1;
+    //Polyglot's promotion codes, indexed by code
+    private static final ChessPiece.PieceType[] PROMOTIONS = {null, ChessPiece.PieceType.KNIGHT,
+            ChessPiece.PieceType.BISHOP, ChessPiece.PieceType.ROOK, ChessPiece.PieceType.QUEEN};
+
+    private final MappedByteBuffer entries;
+    private final int size;
+
+    private OpeningBook(MappedByteBuffer entries) {
+        this.entries = entries;
+        size = entries.capacity() / ENTRY_BYTES;
+    }
+
+    /**
+     * A move the book suggests
+     *
+     * @param move   the move
+     * @param weight how often to play it, relative to the position's other book moves
+     */
+    public record BookMove(ChessMove move, int weight) {
+    }
+
+    /**
+     * A raw book entry
+     *
+     * @param key    the position's Zobrist key
+     * @param move   the move in Polyglot's encoding
+     * @param weight how often to play it
+     */
+    public record Entry(long key, int move, int weight) {
+
+        /**
+         * @param move a legal move in the game's current position
+         */
+        public static Entry of(ChessGame game, ChessMove move, int weight) {
+            return new Entry(game.getZobristKey(), encode(game.getBoard(), move), weight);
+        }
+    }
+
+    /**
+     * Maps a book file into memory
+     *
+     * @throws IOException if the file can't be read, has no book header (as a
+     *                     Polyglot book doesn't) or its size doesn't match the header
+     */
+    public static OpeningBook open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length < HEADER_BYTES || length > Integer.MAX_VALUE) {
+                throw new IOException("Not a book file: " + path + " is " + length + " bytes");
+            }
+            //the mapping stays valid after the channel is closed
+            MappedByteBuffer file = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            byte[] magic = new byte[MAGIC.length];
+            file.get(0, magic);
+            if (!Arrays.equals(magic, MAGIC)) {
+                throw new IOException("Not a book file: " + path
+                        + " has no book header (Polyglot books can't be read)");
+            }
+            short version = file.getShort(MAGIC.length);
+            if (version != VERSION) {
+                throw new IOException("Unsupported book version " + version + " in " + path);
+            }
+            long entries = file.getInt(MAGIC.length + 2) & 0xFFFFFFFFL;
+            if (HEADER_BYTES + entries * ENTRY_BYTES != length) {
+                throw new IOException("Not a book file: " + path + " is " + length + " bytes for " + entries
+                        + " entries");
+            }
+            return new OpeningBook(file.slice(HEADER_BYTES, (int) length - HEADER_BYTES));
+        }
+    }
+
+    /**
+     * Writes entries as a book file, sorted into the order lookups need
+     */
+    public static void write(Path path, List<Entry> bookEntries) throws IOException {
+        List<Entry> sorted = new ArrayList<>(bookEntries);
+        sorted.sort(Comparator.comparing(Entry::key, Long::compareUnsigned));
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + sorted.size() * ENTRY_BYTES);
+        buffer.put(MAGIC).putShort(VERSION).putInt(sorted.size()).putInt(0);
+        for (Entry entry : sorted) {
+            buffer.putLong(entry.key()).putShort((short) entry.move()).putShort((short) entry.weight()).putInt(0);
+        }
+        buffer.flip();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the book's legal moves for the game's position, highest weight
+     * first; empty if the position isn't in the book
+     */
+    public List<BookMove> lookup(ChessGame game) {
+        long key = game.getZobristKey();
+        List<BookMove> moves = new ArrayList<>();
+        MoveBuffer legal = null;
+        for (int i = firstIndex(key); i < size && keyAt(i) == key; i++) {
+            if (legal == null) {
+                legal = new MoveBuffer();
+                game.generateLegalMoves(game.getTeamTurn(), legal);
+            }
+            int offset = i * ENTRY_BYTES;
+            int move = decode(game.getBoard(), entries.getShort(offset + 8) & 0xFFFF, legal);
+            //a key collision or corrupt entry can name a move that isn't legal here
+            if (move != 0) {
+                moves.add(new BookMove(PackedMove.toChessMove(move), entries.getShort(offset + 10) & 0xFFFF));
+            }
+        }
+        moves.sort(Comparator.comparingInt(BookMove::weight).reversed());
+        return moves;
+    }
+
+    /**
+     * Picks one of the book's moves at random, in proportion to their weights
+     *
+     * @return the move, or null if the position isn't in the book
+     */
+    public ChessMove pick(ChessGame game, RandomGenerator random) {
+        List<BookMove> moves = lookup(game);
+        int total = 0;
+        for (BookMove move : moves) {
+            total += move.weight();
+        }
+        if (moves.isEmpty()) {
+            return null;
+        }
+        if (total == 0) {
+            return moves.getFirst().move();
+        }
+        int roll = random.nextInt(total);
+        for (BookMove move : moves) {
+            roll -= move.weight();
+            if (roll < 0) {
+                return move.move();
+            }
+        }
+        return moves.getLast().move();
+    }
+
+    /**
+     * @return the first entry whose key isn't below key
+     */
+    private int firstIndex(long key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (Long.compareUnsigned(keyAt(middle), key) < 0) {
+                low = middle + 1;
+            }
+            else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private long keyAt(int index) {
+        return entries.getLong(index * ENTRY_BYTES);
+    }
+
+    /**
+     * Converts a move to Polyglot's encoding
+     */
+    static int encode(ChessBoard board, ChessMove move) {
+        ChessPosition start = move.getStartPosition();
+        ChessPosition end = move.getEndPosition();
+        int toColumn = end.getColumn();
+        ChessPiece piece = board.getPiece(start);
+        //castling is written as the king taking its own rook
+        if (piece != null && piece.getPieceType() == ChessPiece.PieceType.KING
+                && Math.abs(end.getColumn() - start.getColumn()) == 2) {
+            toColumn = (end.getColumn() > start.getColumn()) ? 8 : 1;
+        }
+        int promotion = 0;
+        for (int code = 1; code < PROMOTIONS.length; code++) {
+            if (PROMOTIONS[code] == move.getPromotionPiece()) {
+                promotion = code;
+            }
+        }
+        return (toColumn - 1) | ((end.getRow() - 1) << 3) | ((start.getColumn() - 1) << 6)
+                | ((start.getRow() - 1) << 9) | (promotion << 12);
+    }
+
+    /**
+     * @return the legal packed move a Polyglot move stands for, or 0 if none matches
+     */
+    private static int decode(ChessBoard board, int move, MoveBuffer legal) {
+        int to = ChessBoard.square(((move >>> 3) & 7) + 1, (move & 7) + 1);
+        int from = ChessBoard.square(((move >>> 9) & 7) + 1, ((move >>> 6) & 7) + 1);
+        int code = (move >>> 12) & 7;
+        ChessPiece.PieceType promotion = (code < PROMOTIONS.length) ? PROMOTIONS[code] : null;
+        ChessPiece piece = board.getPiece(from);
+        ChessPiece target = board.getPiece(to);
+        if (piece != null && piece.getPieceType() == ChessPiece.PieceType.KING && target != null
+                && target.getTeamColor() == piece.getTeamColor()) {
+            //king takes own rook: castle towards it
+            to = (to > from) ? from + 2 : from - 2;
+        }
+        for (int i = 0; i < legal.size(); i++) {
+            int candidate = legal.get(i);
+            if (PackedMove.from(candidate) == from && PackedMove.to(candidate) == to
+                    && PackedMove.promotion(candidate) == promotion) {
+                return candidate;
+            }
+        }
+        return 0;
+    }
+}
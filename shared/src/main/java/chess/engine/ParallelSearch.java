@@ -0,0 +1,105 @@
+package chess.engine;
+
+import chess.ChessGame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lazy SMP: every thread searches the same root position with its own
+ * {@link Search}, and they cooperate only through a shared transposition
+ * table. Helpers start at staggered depths so they fill the table with entries
+ * the main thread reaches later, which speeds up its search; the main thread's
+ * result is the one returned, and the helpers are stopped when it finishes.
+ * <p>
+ * The searches and helper threads are reused, so a ParallelSearch runs one
+ * search at a time; close it to stop the helper threads.
+ */
+public class ParallelSearch implements AutoCloseable {
+    private final TranspositionTable table;
+    private final Search[] searches;
+    private final ExecutorService helpers;
+
+    /**
+     * @param threads how many threads search, including the caller's
+     */
+    public ParallelSearch(int threads, TranspositionTable table) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Need at least 1 search thread, got " + threads);
+        }
+        this.table = table;
+        searches = new Search[threads];
+        for (int i = 0; i < threads; i++) {
+            searches[i] = new Search(table);
+        }
+        AtomicInteger helperNumber = new AtomicInteger();
+        helpers = (threads == 1) ? null : Executors.newFixedThreadPool(threads - 1, runnable -> {
+            Thread thread = new Thread(runnable, "search-helper-" + helperNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public int getThreads() {
+        return searches.length;
+    }
+
+    public TranspositionTable getTable() {
+        return table;
+    }
+
+    /**
+     * Searches the game's current position on every thread. The game itself is
+     * not changed.
+     *
+     * @return the main thread's result, with the nodes of every thread counted
+     */
+    public synchronized SearchResult search(ChessGame game, SearchLimits limits) {
+        table.newSearch();
+        AtomicBoolean stop = new AtomicBoolean();
+        List<Future<SearchResult>> helperResults = new ArrayList<>(searches.length - 1);
+        for (int i = 1; i < searches.length; i++) {
+            Search helper = searches[i];
+            //half the helpers run a ply ahead of the main thread
+            int firstDepth = 1 + i % 2;
+            helperResults.add(helpers.submit(() -> helper.search(game, limits, firstDepth, stop)));
+        }
+
+        SearchResult main;
+        try {
+            main = searches[0].search(game, limits, 1, null);
+        }
+        finally {
+            stop.set(true);
+        }
+
+        long nodes = main.nodes();
+        for (Future<SearchResult> helperResult : helperResults) {
+            try {
+                nodes += helperResult.get().nodes();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            catch (ExecutionException e) {
+                throw new IllegalStateException("Helper search failed", e.getCause());
+            }
+        }
+        return new SearchResult(main.bestMove(), main.score(), main.depth(), nodes, main.elapsedMillis(),
+                main.principalVariation());
+    }
+
+    @Override
+    public void close() {
+        if (helpers != null) {
+            helpers.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,453 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.MoveBuffer;
+import chess.PackedMove;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Iterative deepening negamax search with alpha-beta pruning. Each iteration
+ * searches one ply deeper than the last, trying the previous best line first,
+ * then captures (most valuable victim, least valuable attacker), then quiet
+ * moves that caused cutoffs at the same ply (killers) or anywhere in the tree
+ * (history); captures that lose material by static exchange come last. At
+ * the horizon a quiescence search plays out captures and promotions, skipping
+ * the losing ones, so the score isn't taken halfway through an exchange.
+ * The search stops at whichever of the depth, time or node limits
+ * comes first and returns the result of the last iteration that finished.
+ * <p>
+ * Results are kept in a {@link TranspositionTable}, which cuts off positions
+ * reached again by another move order and supplies their best move first.
+ * The table may be shared with other searches, including ones on other
+ * threads, but a Search itself holds per-search tables, so an instance is
+ * used by one thread at a time.
+ */
+public class Search {
+    public static final int MATE = 100_000;
+    private static final int INFINITY = MATE + 1;
+    private static final int MAX_PLY = 128;
+    private static final int DEFAULT_TABLE_MEGABYTES = 16;
+
+    //move ordering bands, highest first
+    private static final int HASH_MOVE_SCORE = 4_000_000;
+    private static final int PV_SCORE = 3_000_000;
+    private static final int CAPTURE_SCORE = 2_000_000;
+    private static final int KILLER_SCORE = 1_000_000;
+    //below every quiet move
+    private static final int LOSING_CAPTURE_SCORE = -1_000_000;
+    //history scores are halved once one reaches this, so they stay below the killers
+    private static final int HISTORY_LIMIT = 500_000;
+    //how many nodes pass between looks at the clock
+    private static final int CHECK_INTERVAL = 1024;
+
+    //moves of every ply on the current line, stacked
+    private final MoveBuffer moves = new MoveBuffer();
+    private int[] scores = new int[1024];
+    private final int[][] killers = new int[MAX_PLY][2];
+    //indexed by side to move, from square, to square
+    private final int[][][] history = new int[2][64][64];
+    private final int[][] pvTable = new int[MAX_PLY][MAX_PLY];
+    private final int[] pvLength = new int[MAX_PLY];
+    private final long[] keys = new long[MAX_PLY];
+    private int[] previousPv = new int[0];
+    private final StaticExchange exchange = new StaticExchange();
+
+    private final TranspositionTable table;
+    private ChessGame game;
+    private long nodes;
+    private long nodeLimit;
+    private long deadline;
+    private boolean canStop;
+    private boolean stopped;
+    //set by another thread to stop this search, or null
+    private AtomicBoolean stopSignal;
+
+    public Search() {
+        this(new TranspositionTable(DEFAULT_TABLE_MEGABYTES));
+    }
+
+    public Search(TranspositionTable table) {
+        this.table = table;
+    }
+
+    public TranspositionTable getTable() {
+        return table;
+    }
+
+    /**
+     * Searches the game's current position. The game itself is not changed.
+     */
+    public SearchResult search(ChessGame position, SearchLimits limits) {
+        table.newSearch();
+        return search(position, limits, 1, null);
+    }
+
+    /**
+     * Searches as one of several threads sharing the table. The caller starts
+     * the table's new search generation.
+     *
+     * @param firstDepth the depth of the first iteration
+     * @param stopSignal stops the search once set, even before an iteration finishes
+     */
+    SearchResult search(ChessGame position, SearchLimits limits, int firstDepth, AtomicBoolean stopSignal) {
+        long started = System.nanoTime();
+        this.stopSignal = stopSignal;
+        game = new ChessGame(position);
+        nodes = 0;
+        nodeLimit = (limits.nodes() > 0) ? limits.nodes() : Long.MAX_VALUE;
+        deadline = (limits.timeMillis() > 0) ? started + limits.timeMillis() * 1_000_000 : Long.MAX_VALUE;
+        canStop = false;
+        stopped = false;
+        for (int[] pair : killers) {
+            pair[0] = 0;
+            pair[1] = 0;
+        }
+        for (int[][] side : history) {
+            for (int[] from : side) {
+                Arrays.fill(from, 0);
+            }
+        }
+
+        previousPv = new int[0];
+        int[] bestLine = previousPv;
+        int bestScore = 0;
+        int completedDepth = 0;
+        for (int depth = Math.min(firstDepth, limits.maxDepth()); depth <= limits.maxDepth(); depth++) {
+            int score = negamax(depth, -INFINITY, INFINITY, 0);
+            if (stopped) {
+                break;
+            }
+            bestLine = Arrays.copyOf(pvTable[0], pvLength[0]);
+            previousPv = bestLine;
+            bestScore = score;
+            completedDepth = depth;
+            //the first iteration always finishes, so there is a move to return
+            canStop = true;
+            //a forced mate won't get any shorter by searching deeper
+            if (Math.abs(score) >= MATE - depth) {
+                break;
+            }
+        }
+
+        List<ChessMove> line = new ArrayList<>(bestLine.length);
+        for (int move : bestLine) {
+            line.add(PackedMove.toChessMove(move));
+        }
+        long elapsed = (System.nanoTime() - started) / 1_000_000;
+        return new SearchResult(line.isEmpty() ? null : line.getFirst(), bestScore, completedDepth, nodes, elapsed,
+                List.copyOf(line));
+    }
+
+    /**
+     * Scores a position by searching only captures and promotions (all moves
+     * when in check) until it is quiet, with no depth, time or node limit
+     *
+     * @return centipawns from the point of view of the side to move
+     */
+    public int quiescence(ChessGame position) {
+        game = new ChessGame(position);
+        nodes = 0;
+        canStop = false;
+        stopped = false;
+        stopSignal = null;
+        return quiesce(-INFINITY, INFINITY, 0);
+    }
+
+    private int negamax(int depth, int alpha, int beta, int ply) {
+        pvLength[ply] = ply;
+        if (depth == 0) {
+            return quiesce(alpha, beta, ply);
+        }
+        if (shouldStop()) {
+            return 0;
+        }
+        nodes++;
+
+        long key = game.getZobristKey();
+        keys[ply] = key;
+        if (ply > 0 && repeats(key, ply)) {
+            return 0;
+        }
+        if (ply == MAX_PLY - 1) {
+            return Evaluation.evaluate(game);
+        }
+
+        long entry = table.probe(key);
+        int hashMove = TranspositionTable.move(entry);
+        //the root always searches, so there is a line to report
+        if (entry != 0 && ply > 0 && TranspositionTable.depth(entry) >= depth) {
+            int score = fromTable(TranspositionTable.score(entry), ply);
+            int bound = TranspositionTable.bound(entry);
+            if (bound == TranspositionTable.EXACT
+                    || (bound == TranspositionTable.LOWER && score >= beta)
+                    || (bound == TranspositionTable.UPPER && score <= alpha)) {
+                return score;
+            }
+        }
+
+        int start = moves.size();
+        game.generateLegalMoves(game.getTeamTurn(), moves);
+        int end = moves.size();
+        if (end > scores.length) {
+            scores = Arrays.copyOf(scores, end * 2);
+        }
+        if (start == end) {
+            //checkmate, scored so that nearer mates are preferred; otherwise stalemate
+            return game.isInCheck(game.getTeamTurn()) ? -MATE + ply : 0;
+        }
+        scoreMoves(start, end, ply, hashMove);
+
+        int originalAlpha = alpha;
+        int bestScore = -INFINITY;
+        int bestMove = 0;
+        for (int i = start; i < end; i++) {
+            int move = pickNext(i, end);
+            game.makeMove(move);
+            int score = -negamax(depth - 1, -beta, -alpha, ply + 1);
+            game.unmakeMove();
+            if (stopped) {
+                moves.truncate(start);
+                return 0;
+            }
+
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+            }
+            if (score > alpha) {
+                alpha = score;
+                updatePv(ply, move);
+            }
+            if (alpha >= beta) {
+                if (!PackedMove.hasFlag(move, PackedMove.CAPTURE)) {
+                    rememberCutoff(move, depth, ply);
+                }
+                break;
+            }
+        }
+        moves.truncate(start);
+
+        int bound = (bestScore >= beta) ? TranspositionTable.LOWER
+                : (bestScore > originalAlpha) ? TranspositionTable.EXACT : TranspositionTable.UPPER;
+        table.store(key, (bound == TranspositionTable.UPPER) ? 0 : bestMove, toTable(bestScore, ply), depth, bound);
+        return bestScore;
+    }
+
+    private int quiesce(int alpha, int beta, int ply) {
+        pvLength[ply] = ply;
+        if (shouldStop()) {
+            return 0;
+        }
+        nodes++;
+        if (ply == MAX_PLY - 1) {
+            return Evaluation.evaluate(game);
+        }
+
+        //out of check the side to move can stand pat rather than capture
+        boolean inCheck = game.isInCheck(game.getTeamTurn());
+        int bestScore = -INFINITY;
+        if (!inCheck) {
+            bestScore = Evaluation.evaluate(game);
+            if (bestScore >= beta) {
+                return bestScore;
+            }
+            alpha = Math.max(alpha, bestScore);
+        }
+
+        int start = moves.size();
+        game.generateLegalMoves(game.getTeamTurn(), moves);
+        if (moves.size() == start) {
+            return inCheck ? -MATE + ply : bestScore;
+        }
+        if (!inCheck) {
+            keepWinningCaptures(start);
+        }
+        int end = moves.size();
+        if (end > scores.length) {
+            scores = Arrays.copyOf(scores, end * 2);
+        }
+        scoreMoves(start, end, ply, 0);
+
+        for (int i = start; i < end; i++) {
+            int move = pickNext(i, end);
+            game.makeMove(move);
+            int score = -quiesce(-beta, -alpha, ply + 1);
+            game.unmakeMove();
+            if (stopped) {
+                moves.truncate(start);
+                return 0;
+            }
+            if (score > bestScore) {
+                bestScore = score;
+            }
+            if (score > alpha) {
+                alpha = score;
+            }
+            if (alpha >= beta) {
+                break;
+            }
+        }
+        moves.truncate(start);
+        return bestScore;
+    }
+
+    /**
+     * Drops every move from start on except queen promotions and captures that
+     * don't lose material
+     */
+    private void keepWinningCaptures(int start) {
+        ChessBoard board = game.getBoard();
+        int kept = start;
+        for (int i = start; i < moves.size(); i++) {
+            int move = moves.get(i);
+            ChessPiece.PieceType promotion = PackedMove.promotion(move);
+            boolean keep = (promotion != null) ? promotion == ChessPiece.PieceType.QUEEN
+                    : PackedMove.hasFlag(move, PackedMove.CAPTURE) && !losesMaterial(board, move);
+            if (keep) {
+                moves.set(kept++, move);
+            }
+        }
+        moves.truncate(kept);
+    }
+
+    private boolean losesMaterial(ChessBoard board, int move) {
+        ChessPiece victim = board.getPiece(PackedMove.to(move));
+        //taking something worth at least the capturer can't lose
+        if (victim != null && Evaluation.value(victim.getPieceType())
+                >= Evaluation.value(board.getPiece(PackedMove.from(move)).getPieceType())) {
+            return false;
+        }
+        return exchange.evaluate(board, move) < 0;
+    }
+
+    private boolean shouldStop() {
+        if (stopped) {
+            return true;
+        }
+        if (stopSignal != null && (nodes & (CHECK_INTERVAL - 1)) == 0 && stopSignal.get()) {
+            stopped = true;
+        }
+        else if (canStop && (nodes >= nodeLimit
+                || ((nodes & (CHECK_INTERVAL - 1)) == 0 && System.nanoTime() >= deadline))) {
+            stopped = true;
+        }
+        return stopped;
+    }
+
+    /**
+     * @return True if the position already occurred earlier on the current line
+     */
+    private boolean repeats(long key, int ply) {
+        for (int i = ply - 2; i >= 0; i -= 2) {
+            if (keys[i] == key) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void updatePv(int ply, int move) {
+        int[] line = pvTable[ply];
+        line[ply] = move;
+        int childLength = pvLength[ply + 1];
+        System.arraycopy(pvTable[ply + 1], ply + 1, line, ply + 1, childLength - ply - 1);
+        pvLength[ply] = Math.max(childLength, ply + 1);
+    }
+
+    /**
+     * Mate scores count plies from the root, but a table entry can be reached at
+     * any ply, so they are stored counting from the entry's own position
+     */
+    private static int toTable(int score, int ply) {
+        return (score >= MATE - MAX_PLY) ? score + ply : (score <= -MATE + MAX_PLY) ? score - ply : score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        return (score >= MATE - MAX_PLY) ? score - ply : (score <= -MATE + MAX_PLY) ? score + ply : score;
+    }
+
+    private void scoreMoves(int start, int end, int ply, int hashMove) {
+        ChessBoard board = game.getBoard();
+        int pvMove = (ply < previousPv.length) ? previousPv[ply] : 0;
+        int color = game.getTeamTurn().ordinal();
+        for (int i = start; i < end; i++) {
+            int move = moves.get(i);
+            int from = PackedMove.from(move);
+            int to = PackedMove.to(move);
+            int score;
+            if (move == hashMove) {
+                score = HASH_MOVE_SCORE;
+            }
+            else if (move == pvMove) {
+                score = PV_SCORE;
+            }
+            else if (PackedMove.hasFlag(move, PackedMove.CAPTURE)) {
+                ChessPiece victim = board.getPiece(to);
+                int victimValue = (victim == null) ? Evaluation.value(ChessPiece.PieceType.PAWN)
+                        : Evaluation.value(victim.getPieceType());
+                score = (losesMaterial(board, move) ? LOSING_CAPTURE_SCORE : CAPTURE_SCORE)
+                        + victimValue * 10 - Evaluation.value(board.getPiece(from).getPieceType()) / 10;
+            }
+            else if (PackedMove.promotion(move) != null) {
+                score = CAPTURE_SCORE + Evaluation.value(PackedMove.promotion(move));
+            }
+            else if (move == killers[ply][0]) {
+                score = KILLER_SCORE + 1;
+            }
+            else if (move == killers[ply][1]) {
+                score = KILLER_SCORE;
+            }
+            else {
+                score = history[color][from][to];
+            }
+            scores[i] = score;
+        }
+    }
+
+    /**
+     * Swaps the best scored move left in [i, end) into slot i and returns it
+     */
+    private int pickNext(int i, int end) {
+        int best = i;
+        for (int j = i + 1; j < end; j++) {
+            if (scores[j] > scores[best]) {
+                best = j;
+            }
+        }
+        int move = moves.get(best);
+        if (best != i) {
+            moves.set(best, moves.get(i));
+            moves.set(i, move);
+            int score = scores[best];
+            scores[best] = scores[i];
+            scores[i] = score;
+        }
+        return move;
+    }
+
+    private void rememberCutoff(int move, int depth, int ply) {
+        if (killers[ply][0] != move) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+        int[] counts = history[game.getTeamTurn().ordinal()][PackedMove.from(move)];
+        int to = PackedMove.to(move);
+        counts[to] += depth * depth;
+        if (counts[to] >= HISTORY_LIMIT) {
+            for (int[][] side : history) {
+                for (int[] from : side) {
+                    for (int square = 0; square < 64; square++) {
+                        from[square] >>= 1;
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package chess.engine;
+
+/**
+ * How far a search may go. Whichever limit is reached first stops it; a limit
+ * of 0 means unlimited. The search always finishes depth 1, so there is a move
+ * to return even with a very small budget.
+ *
+ * @param depth      deepest iteration to search, in plies
+ * @param timeMillis wall clock budget
+ * @param nodes      maximum positions to visit
+ */
+public record SearchLimits(int depth, long timeMillis, long nodes) {
+    public static final int MAX_DEPTH = 64;
+
+    public static SearchLimits depth(int depth) {
+        return new SearchLimits(depth, 0, 0);
+    }
+
+    public static SearchLimits time(long timeMillis) {
+        return new SearchLimits(0, timeMillis, 0);
+    }
+
+    public static SearchLimits nodes(long nodes) {
+        return new SearchLimits(0, 0, nodes);
+    }
+
+    /**
+     * @return the deepest iteration to run, capped at MAX_DEPTH
+     */
+    public int maxDepth() {
+        return (depth <= 0) ? MAX_DEPTH : Math.min(depth, MAX_DEPTH);
+    }
+}
@@ -0,0 +1,31 @@
+package chess.engine;
+
+import chess.ChessMove;
+
+import java.util.List;
+
+/**
+ * The outcome of a search
+ *
+ * @param bestMove           the move to play, or null if the side to move has none
+ * @param score              centipawns from the side to move's point of view; mates are
+ *                           reported as Search.MATE minus the plies to mate
+ * @param depth              deepest iteration that finished
+ * @param nodes              positions visited
+ * @param elapsedMillis      wall clock time taken
+ * @param principalVariation the expected line of play, starting with bestMove
+ */
+public record SearchResult(ChessMove bestMove, int score, int depth, long nodes, long elapsedMillis,
+                           List<ChessMove> principalVariation) {
+
+    public long nodesPerSecond() {
+        return nodes * 1000 / Math.max(1, elapsedMillis);
+    }
+
+    /**
+     * @return True if the score is a forced mate for either side
+     */
+    public boolean isMate() {
+        return Math.abs(score) >= Search.MATE - SearchLimits.MAX_DEPTH * 2;
+    }
+}
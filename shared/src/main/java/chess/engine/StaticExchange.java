@@ -0,0 +1,94 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.PackedMove;
+
+/**
+ * Static exchange evaluation: the material a capture wins or loses once both
+ * sides have made every recapture on the target square that pays, worked out
+ * from attack masks without playing any moves. Each side recaptures with its
+ * least valuable attacker, and sliders lined up behind a piece join in once
+ * it has captured. Pins are ignored.
+ * <p>
+ * An instance keeps its scratch space between calls, so it is used by one
+ * thread at a time.
+ */
+public class StaticExchange {
+    //least valuable first, the order attackers recapture in
+    private static final ChessPiece.PieceType[] RECAPTURE_ORDER = {
+            ChessPiece.PieceType.PAWN, ChessPiece.PieceType.KNIGHT, ChessPiece.PieceType.BISHOP,
+            ChessPiece.PieceType.ROOK, ChessPiece.PieceType.QUEEN, ChessPiece.PieceType.KING};
+    //at most 30 pieces can attack one square, plus the first capture
+    private static final int MAX_EXCHANGES = 32;
+
+    //gain[d] is what the side making capture d is up if the exchange stops there
+    private final int[] gain = new int[MAX_EXCHANGES];
+
+    /**
+     * @param move a packed move for the piece on its from square
+     * @return the material the moving side comes out ahead, in centipawns;
+     * negative if the capture loses material
+     */
+    public int evaluate(ChessBoard board, int move) {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        ChessPiece mover = board.getPiece(from);
+        long occupied = board.getOccupied() & ~(1L << from);
+
+        ChessPiece victim = board.getPiece(to);
+        if (PackedMove.hasFlag(move, PackedMove.EN_PASSANT)) {
+            //the captured pawn is beside the target square, on the mover's rank
+            occupied &= ~(1L << ((to & 7) | (from & ~7)));
+            gain[0] = Evaluation.value(ChessPiece.PieceType.PAWN);
+        }
+        else {
+            gain[0] = (victim == null) ? 0 : Evaluation.value(victim.getPieceType());
+        }
+        //the piece standing on the square, which the next capture takes
+        int onSquare = Evaluation.value(mover.getPieceType());
+        ChessPiece.PieceType promotion = PackedMove.promotion(move);
+        if (promotion != null) {
+            gain[0] += Evaluation.value(promotion) - Evaluation.value(ChessPiece.PieceType.PAWN);
+            onSquare = Evaluation.value(promotion);
+        }
+
+        ChessGame.TeamColor side = mover.getTeamColor().opponent();
+        long attackers = board.getAttackers(to, occupied) & occupied;
+        int depth = 0;
+        while (true) {
+            long ours = attackers & board.getPieces(side);
+            if (ours == 0) {
+                break;
+            }
+            ChessPiece.PieceType type = null;
+            long attacker = 0;
+            for (ChessPiece.PieceType candidate : RECAPTURE_ORDER) {
+                long candidates = ours & board.getPieces(side, candidate);
+                if (candidates != 0) {
+                    type = candidate;
+                    attacker = candidates & -candidates;
+                    break;
+                }
+            }
+            //the king can't take into a defended square
+            if (type == ChessPiece.PieceType.KING && (attackers & board.getPieces(side.opponent())) != 0) {
+                break;
+            }
+            depth++;
+            gain[depth] = onSquare - gain[depth - 1];
+            onSquare = Evaluation.value(type);
+            occupied &= ~attacker;
+            //sliders behind the piece that just captured can now see the square
+            attackers = board.getAttackers(to, occupied) & occupied;
+            side = side.opponent();
+        }
+        //each side can stop capturing whenever carrying on would lose
+        while (depth > 0) {
+            gain[depth - 1] = -Math.max(-gain[depth - 1], gain[depth]);
+            depth--;
+        }
+        return gain[0];
+    }
+}
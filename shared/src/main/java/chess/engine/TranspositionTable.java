@@ -0,0 +1,146 @@
+package chess.engine;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A fixed-size hash table of search results keyed by Zobrist key, shared by any
+ * number of search threads without locking. Each entry is two longs in one
+ * flat array: the key XORed with the data, then the data. A reader only
+ * accepts an entry whose two halves XOR back to the key it asked for, so an
+ * entry half overwritten by another thread reads as a miss rather than as
+ * someone else's result.
+ * <p>
+ * Data layout: bits 0-19 best move, bits 20-39 score (offset to be unsigned),
+ * bits 40-47 depth, bits 48-49 bound, bits 50-57 the search generation that
+ * wrote it. A stored entry always has a bound, so data 0 means empty.
+ */
+public class TranspositionTable {
+    public static final int EXACT = 1;
+    //the score is at most this (every move failed low)
+    public static final int UPPER = 2;
+    //the score is at least this (a move failed high)
+    public static final int LOWER = 3;
+
+    private static final int ENTRY_LONGS = 2;
+    private static final int SCORE_OFFSET = 1 << 19;
+    private static final long MOVE_MASK = (1L << 20) - 1;
+
+    private final long[] table;
+    private final int indexMask;
+    private final AtomicInteger generation = new AtomicInteger();
+
+    /**
+     * @param megabytes memory budget; the entry count is the largest power of two that fits
+     */
+    public TranspositionTable(int megabytes) {
+        if (megabytes < 1) {
+            throw new IllegalArgumentException("Transposition table needs at least 1 MB, got " + megabytes);
+        }
+        long entries = Long.highestOneBit((long) megabytes * 1024 * 1024 / (ENTRY_LONGS * Long.BYTES));
+        //Java arrays are indexed by int
+        entries = Math.min(entries, 1L << 29);
+        table = new long[(int) entries * ENTRY_LONGS];
+        indexMask = (int) entries - 1;
+    }
+
+    public int capacity() {
+        return indexMask + 1;
+    }
+
+    /**
+     * @return the entry's data, or 0 if nothing is stored for the key
+     */
+    public long probe(long key) {
+        int slot = slot(key);
+        long data = table[slot + 1];
+        return ((table[slot] ^ data) == key) ? data : 0;
+    }
+
+    /**
+     * Stores a result unless the slot holds a deeper result for another position
+     * from the current search
+     *
+     * @param move  the packed best move, or 0 if there is none
+     * @param score the score with mates relative to this position, see Search
+     */
+    public void store(long key, int move, int score, int depth, int bound) {
+        int slot = slot(key);
+        long oldData = table[slot + 1];
+        boolean samePosition = (table[slot] ^ oldData) == key;
+        int current = generation.get() & 0xFF;
+        if (oldData != 0 && !samePosition && generation(oldData) == current && depth(oldData) > depth) {
+            return;
+        }
+        //keep the old best move rather than forget it
+        if (move == 0 && samePosition) {
+            move = move(oldData);
+        }
+        long data = (move & MOVE_MASK)
+                | ((long) (score + SCORE_OFFSET) << 20)
+                | ((long) depth << 40)
+                | ((long) bound << 48)
+                | ((long) current << 50);
+        table[slot] = key ^ data;
+        table[slot + 1] = data;
+    }
+
+    /**
+     * Starts a new search, so entries left over from earlier searches become
+     * the first to be replaced. Every search calls this when it starts, and the
+     * bump is atomic so concurrent calls are all counted. That does not keep
+     * searches sharing the table apart, though: one starting while another is
+     * running ages the running search's entries, which then lose their
+     * protection from being replaced by shallower ones.
+     */
+    public void newSearch() {
+        generation.incrementAndGet();
+    }
+
+    //how many times newSearch has been called; entries keep only the low 8 bits
+    int searchCount() {
+        return generation.get();
+    }
+
+    public void clear() {
+        Arrays.fill(table, 0);
+    }
+
+    /**
+     * @return how full the table is in parts per thousand, sampled from the first entries
+     */
+    public int hashfull() {
+        int sample = Math.min(1000, capacity());
+        int used = 0;
+        for (int i = 0; i < sample; i++) {
+            if (table[i * ENTRY_LONGS + 1] != 0) {
+                used++;
+            }
+        }
+        return used * 1000 / sample;
+    }
+
+    private int slot(long key) {
+        return ((int) key & indexMask) * ENTRY_LONGS;
+    }
+
+    public static int move(long data) {
+        return (int) (data & MOVE_MASK);
+    }
+
+    public static int score(long data) {
+        return (int) ((data >>> 20) & ((1L << 20) - 1)) - SCORE_OFFSET;
+    }
+
+    public static int depth(long data) {
+        return (int) ((data >>> 40) & 0xFF);
+    }
+
+    public static int bound(long data) {
+        return (int) ((data >>> 48) & 3);
+    }
+
+    private static int generation(long data) {
+        return (int) ((data >>> 50) & 0xFF);
+    }
+}
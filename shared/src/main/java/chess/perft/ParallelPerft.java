@@ -0,0 +1,174 @@
+package chess.perft;
+
+import chess.ChessGame;
+import chess.MoveBuffer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Perft split across a ForkJoinPool. The root moves (and optionally the moves
+ * one ply below them) become separate tasks; each task copies the root game,
+ * replays its move path and walks its subtree sequentially on its own copy, so
+ * workers never share a board. Node counts are identical to {@link Perft}.
+ * <p>
+ * Usage: {@code ParallelPerft [--position NAME] [--depth N] [--threads N] [--split-second-ply]}.
+ * Each position is walked sequentially and then in parallel, and the speedup,
+ * scaling efficiency and per-thread throughput are printed.
+ */
+public class ParallelPerft {
+
+    /**
+     * Counts leaf nodes to a depth using the pool's workers. The game is only read.
+     *
+     * @param splitSecondPly also split each root move's replies into their own tasks,
+     *                       which balances better when there are few root moves
+     * @throws IllegalArgumentException if depth is negative
+     */
+    public static Result perft(ChessGame game, int depth, ForkJoinPool pool, boolean splitSecondPly) {
+        if (depth < 0) {
+            throw new IllegalArgumentException("Perft depth can't be negative: " + depth);
+        }
+        Map<Thread, long[]> workers = new ConcurrentHashMap<>();
+        ChessGame root = new ChessGame(game);
+        long started = System.nanoTime();
+        long nodes = pool.invoke(new SubtreeTask(root, new int[0], depth, splitSecondPly ? 2 : 1, workers));
+        long elapsed = Math.max(1, System.nanoTime() - started);
+
+        List<WorkerStats> stats = new ArrayList<>();
+        workers.forEach((thread, counts) -> stats.add(new WorkerStats(thread.getName(), counts[0], counts[1])));
+        stats.sort((a, b) -> a.thread().compareTo(b.thread()));
+        return new Result(nodes, elapsed, stats);
+    }
+
+    /**
+     * @param nodes        leaf nodes counted
+     * @param elapsedNanos wall clock time of the whole walk
+     * @param workers      what each pool thread contributed
+     */
+    public record Result(long nodes, long elapsedNanos, List<WorkerStats> workers) {
+        public double nodesPerSecond() {
+            return nodes * 1e9 / elapsedNanos;
+        }
+    }
+
+    /**
+     * @param thread    the worker thread's name
+     * @param nodes     leaf nodes it counted
+     * @param busyNanos time it spent walking subtrees
+     */
+    public record WorkerStats(String thread, long nodes, long busyNanos) {
+        public double nodesPerSecond() {
+            return (busyNanos == 0) ? 0 : nodes * 1e9 / busyNanos;
+        }
+    }
+
+    private static class SubtreeTask extends RecursiveTask<Long> {
+        private final ChessGame root;
+        private final int[] path;
+        private final int depth;
+        private final int splitPlies;
+        private final Map<Thread, long[]> workers;
+
+        SubtreeTask(ChessGame root, int[] path, int depth, int splitPlies, Map<Thread, long[]> workers) {
+            this.root = root;
+            this.path = path;
+            this.depth = depth;
+            this.splitPlies = splitPlies;
+            this.workers = workers;
+        }
+
+        @Override
+        protected Long compute() {
+            //our own copy, so no other worker ever touches this board
+            ChessGame game = new ChessGame(root);
+            for (int move : path) {
+                game.makeMove(move);
+            }
+            if (splitPlies == 0 || depth <= 1) {
+                long started = System.nanoTime();
+                long nodes = Perft.perft(game, depth);
+                //only this thread writes its own entry
+                long[] counts = workers.computeIfAbsent(Thread.currentThread(), thread -> new long[2]);
+                counts[0] += nodes;
+                counts[1] += System.nanoTime() - started;
+                return nodes;
+            }
+
+            MoveBuffer moves = new MoveBuffer();
+            game.generateLegalMoves(game.getTeamTurn(), moves);
+            List<SubtreeTask> tasks = new ArrayList<>(moves.size());
+            for (int i = 0; i < moves.size(); i++) {
+                int[] childPath = Arrays.copyOf(path, path.length + 1);
+                childPath[path.length] = moves.get(i);
+                tasks.add(new SubtreeTask(root, childPath, depth - 1, splitPlies - 1, workers));
+            }
+            long nodes = 0;
+            for (SubtreeTask task : invokeAll(tasks)) {
+                nodes += task.join();
+            }
+            return nodes;
+        }
+    }
+
+    public static void main(String[] args) {
+        String positionName = null;
+        int depth = 0;
+        int threads = Runtime.getRuntime().availableProcessors();
+        boolean splitSecondPly = false;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--position" -> positionName = args[++i];
+                case "--depth" -> depth = Integer.parseInt(args[++i]);
+                case "--threads" -> threads = Integer.parseInt(args[++i]);
+                case "--split-second-ply" -> splitSecondPly = true;
+                default -> {
+                    System.err.println("Usage: ParallelPerft [--position NAME] [--depth N] [--threads N] [--split-second-ply]");
+                    System.exit(2);
+                }
+            }
+        }
+
+        List<PerftPosition> positions = PerftPosition.STANDARD;
+        if (positionName != null) {
+            PerftPosition position = PerftPosition.named(positionName);
+            if (position == null) {
+                System.err.println("Unknown position: " + positionName);
+                System.exit(2);
+            }
+            positions = List.of(position);
+        }
+
+        boolean allMatched = true;
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        for (PerftPosition position : positions) {
+            int runDepth = (depth > 0) ? depth : Math.min(5, position.maxDepth());
+            ChessGame game = position.toGame();
+
+            long started = System.nanoTime();
+            long sequentialNodes = Perft.perft(game, runDepth);
+            long sequentialNanos = Math.max(1, System.nanoTime() - started);
+            Result result = perft(game, runDepth, pool, splitSecondPly);
+
+            boolean matched = result.nodes() == sequentialNodes;
+            allMatched &= matched;
+            double speedup = (double) sequentialNanos / result.elapsedNanos();
+            System.out.printf("%-10s depth %d: %,d nodes, sequential %,d ms, %d threads %,d ms, "
+                            + "speedup %.2fx, efficiency %.0f%% %s%n",
+                    position.name(), runDepth, result.nodes(), sequentialNanos / 1_000_000, threads,
+                    result.elapsedNanos() / 1_000_000, speedup, 100 * speedup / threads,
+                    matched ? "OK" : "MISMATCH (sequential " + sequentialNodes + ")");
+            for (WorkerStats worker : result.workers()) {
+                System.out.printf("    %-32s %,14d nodes %,14.0f nodes/s%n", worker.thread(), worker.nodes(),
+                        worker.nodesPerSecond());
+            }
+        }
+        pool.shutdown();
+        System.exit(allMatched ? 0 : 1);
+    }
+}
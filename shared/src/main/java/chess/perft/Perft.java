@@ -0,0 +1,167 @@
+package chess.perft;
+
+import chess.ChessGame;
+import chess.MoveBuffer;
+import chess.PackedMove;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Perft (performance test): counts the leaf nodes of the legal move tree to a
+ * fixed depth. The counts are a correctness oracle for move generation, since
+ * the reference positions' counts are published, and the time taken gives a
+ * throughput number to track across releases.
+ * <p>
+ * Usage: {@code Perft [--position NAME] [--depth N] [--divide]}. With no
+ * position every reference position is run; with no depth each runs at the
+ * deepest listed depth of at most 5 million nodes.
+ */
+public class Perft {
+    private static final long DEFAULT_NODE_LIMIT = 5_000_000;
+
+    /**
+     * Counts leaf nodes to a depth from the game's current position. The game is
+     * left as it was found.
+     *
+     * @throws IllegalArgumentException if depth is negative
+     */
+    public static long perft(ChessGame game, int depth) {
+        return perft(game, depth, new MoveBuffer());
+    }
+
+    /**
+     * Same as perft(game, depth), reusing buffer as the move stack: each ply
+     * appends its moves and truncates them again when done
+     */
+    public static long perft(ChessGame game, int depth, MoveBuffer buffer) {
+        if (depth < 0) {
+            throw new IllegalArgumentException("Perft depth can't be negative: " + depth);
+        }
+        return count(game, depth, buffer);
+    }
+
+    private static long count(ChessGame game, int depth, MoveBuffer buffer) {
+        if (depth == 0) {
+            return 1;
+        }
+        int start = buffer.size();
+        game.generateLegalMoves(game.getTeamTurn(), buffer);
+        int end = buffer.size();
+        //bulk count the last ply
+        if (depth == 1) {
+            buffer.truncate(start);
+            return end - start;
+        }
+        long nodes = 0;
+        for (int i = start; i < end; i++) {
+            game.makeMove(buffer.get(i));
+            nodes += count(game, depth - 1, buffer);
+            game.unmakeMove();
+        }
+        buffer.truncate(start);
+        return nodes;
+    }
+
+    /**
+     * Counts the leaf nodes under each root move separately, for tracking down
+     * which move a wrong count comes from
+     *
+     * @return one entry per legal root move
+     * @throws IllegalArgumentException if depth is below 1, which leaves no root moves to divide by
+     */
+    public static List<Division> divide(ChessGame game, int depth) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("Divide depth must be at least 1: " + depth);
+        }
+        MoveBuffer buffer = new MoveBuffer();
+        game.generateLegalMoves(game.getTeamTurn(), buffer);
+        int rootMoves = buffer.size();
+        List<Division> divisions = new ArrayList<>(rootMoves);
+        for (int i = 0; i < rootMoves; i++) {
+            int move = buffer.get(i);
+            game.makeMove(move);
+            divisions.add(new Division(move, count(game, depth - 1, buffer)));
+            game.unmakeMove();
+        }
+        return divisions;
+    }
+
+    /**
+     * The leaf count under one root move
+     *
+     * @param move  the packed root move
+     * @param nodes leaf nodes beneath it
+     */
+    public record Division(int move, long nodes) {
+        @Override
+        public String toString() {
+            return PackedMove.toString(move) + ": " + nodes;
+        }
+    }
+
+    public static void main(String[] args) {
+        String positionName = null;
+        int depth = 0;
+        boolean divide = false;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--position" -> positionName = args[++i];
+                case "--depth" -> depth = Integer.parseInt(args[++i]);
+                case "--divide" -> divide = true;
+                default -> {
+                    System.err.println("Usage: Perft [--position NAME] [--depth N] [--divide]");
+                    System.exit(2);
+                }
+            }
+        }
+
+        List<PerftPosition> positions = PerftPosition.STANDARD;
+        if (positionName != null) {
+            PerftPosition position = PerftPosition.named(positionName);
+            if (position == null) {
+                System.err.println("Unknown position: " + positionName);
+                System.exit(2);
+            }
+            positions = List.of(position);
+        }
+
+        boolean allPassed = true;
+        for (PerftPosition position : positions) {
+            int runDepth = (depth > 0) ? depth : defaultDepth(position);
+            allPassed &= run(position, runDepth, divide);
+        }
+        System.exit(allPassed ? 0 : 1);
+    }
+
+    private static int defaultDepth(PerftPosition position) {
+        int depth = 1;
+        while (depth < position.maxDepth() && position.expected(depth + 1) <= DEFAULT_NODE_LIMIT) {
+            depth++;
+        }
+        return depth;
+    }
+
+    private static boolean run(PerftPosition position, int depth, boolean divide) {
+        ChessGame game = position.toGame();
+        long started = System.nanoTime();
+        long nodes;
+        if (divide) {
+            nodes = 0;
+            for (Division division : divide(game, depth)) {
+                System.out.println("  " + division);
+                nodes += division.nodes();
+            }
+        }
+        else {
+            nodes = perft(game, depth);
+        }
+        long elapsed = Math.max(1, System.nanoTime() - started);
+
+        long expected = position.expected(depth);
+        String verdict = (expected < 0) ? "?" : (expected == nodes) ? "OK" : "FAIL (expected " + expected + ")";
+        System.out.printf("%-10s depth %d: %,d nodes in %,d ms (%,.0f nodes/s) %s%n", position.name(), depth, nodes,
+                elapsed / 1_000_000, nodes * 1e9 / elapsed, verdict);
+        return expected < 0 || expected == nodes;
+    }
+}
@@ -0,0 +1,63 @@
+package chess.perft;
+
+import chess.ChessGame;
+import chess.Fen;
+
+import java.util.List;
+
+/**
+ * A reference position with its published perft node counts
+ *
+ * @param name  short name used on the command line
+ * @param fen   the position in Forsyth-Edwards Notation
+ * @param nodes nodes[d - 1] is the leaf count at depth d
+ */
+public record PerftPosition(String name, String fen, long... nodes) {
+
+    /**
+     * The standard perft suite (see the chessprogramming wiki "Perft Results" page)
+     */
+    public static final List<PerftPosition> STANDARD = List.of(
+            new PerftPosition("start", "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+                    20, 400, 8902, 197281, 4865609, 119060324),
+            new PerftPosition("kiwipete", "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+                    48, 2039, 97862, 4085603, 193690690),
+            new PerftPosition("position3", "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+                    14, 191, 2812, 43238, 674624, 11030083, 178633661),
+            new PerftPosition("position4", "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+                    6, 264, 9467, 422333, 15833292),
+            new PerftPosition("position5", "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+                    44, 1486, 62379, 2103487, 89941194),
+            new PerftPosition("position6", "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+                    46, 2079, 89890, 3894594, 164075551));
+
+    /**
+     * @return the published node count at a depth, or -1 if it isn't listed
+     */
+    public long expected(int depth) {
+        return (depth >= 1 && depth <= nodes.length) ? nodes[depth - 1] : -1;
+    }
+
+    public int maxDepth() {
+        return nodes.length;
+    }
+
+    /**
+     * @return the reference position with the given name, or null
+     */
+    public static PerftPosition named(String name) {
+        for (PerftPosition position : STANDARD) {
+            if (position.name().equalsIgnoreCase(name)) {
+                return position;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return a new game set up from the FEN
+     */
+    public ChessGame toGame() {
+        return Fen.parse(fen);
+    }
+}
@@ -0,0 +1,246 @@
+package chess.pgn;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Bulk import of a PGN file. In parallel mode the file is cut into one byte
+ * range per thread, each moved forward to the start of a game, and every
+ * thread reads its own range with its own PgnReader through positional reads
+ * on one shared channel. A game starts at a '[' that opens a line after a
+ * blank line, which is how PGN export format separates games.
+ * <p>
+ * Usage: {@code PgnImport FILE [--threads N]}. Every game is replayed and
+ * counted, and the games per second are printed.
+ */
+public final class PgnImport {
+    private static final int SCAN_BYTES = 1 << 12;
+
+    private PgnImport() {
+    }
+
+    /**
+     * @param games        games read and replayed
+     * @param skipped      games that couldn't be replayed
+     * @param bytes        size of the input
+     * @param elapsedNanos wall clock time of the whole import
+     */
+    public record Stats(long games, long skipped, long bytes, long elapsedNanos) {
+        public double gamesPerSecond() {
+            return games * 1e9 / Math.max(1, elapsedNanos);
+        }
+
+        public double megabytesPerSecond() {
+            return bytes * 1e9 / Math.max(1, elapsedNanos) / (1 << 20);
+        }
+    }
+
+    /**
+     * Reads every game in the file on the calling thread
+     */
+    public static Stats read(Path path, Consumer<PgnReader.Game> sink) throws IOException {
+        return read(path, 1, sink);
+    }
+
+    /**
+     * Reads every game in the file, split across threads
+     *
+     * @param sink called for each game from the reading threads, so it must be
+     *             thread safe when threads is above 1; games from one thread
+     *             arrive in file order
+     */
+    public static Stats read(Path path, int threads, Consumer<PgnReader.Game> sink) throws IOException {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be at least 1: " + threads);
+        }
+        long started = System.nanoTime();
+        try (FileChannel file = FileChannel.open(path, StandardOpenOption.READ)) {
+            long[] bounds = split(file, threads);
+            long[] counts = new long[2];
+            if (threads == 1) {
+                counts = readRange(file, bounds[0], bounds[1], sink);
+            }
+            else {
+                ExecutorService pool = Executors.newFixedThreadPool(threads,
+                        Thread.ofPlatform().name("pgn-import-", 0).factory());
+                try {
+                    List<Future<long[]>> ranges = new ArrayList<>();
+                    for (int i = 0; i < threads; i++) {
+                        long start = bounds[i];
+                        long end = bounds[i + 1];
+                        ranges.add(pool.submit(() -> readRange(file, start, end, sink)));
+                    }
+                    for (Future<long[]> range : ranges) {
+                        long[] rangeCounts = range.get();
+                        counts[0] += rangeCounts[0];
+                        counts[1] += rangeCounts[1];
+                    }
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while importing " + path, e);
+                }
+                catch (ExecutionException e) {
+                    if (e.getCause() instanceof IOException cause) {
+                        throw cause;
+                    }
+                    if (e.getCause() instanceof RuntimeException cause) {
+                        throw cause;
+                    }
+                    throw new IOException("Failed to import " + path, e.getCause());
+                }
+                finally {
+                    pool.shutdownNow();
+                }
+            }
+            return new Stats(counts[0], counts[1], file.size(), System.nanoTime() - started);
+        }
+    }
+
+    /**
+     * @return {games, skipped} for the games in the range
+     */
+    private static long[] readRange(FileChannel file, long start, long end, Consumer<PgnReader.Game> sink)
+            throws IOException {
+        PgnReader reader = new PgnReader(new RangeChannel(file, start, end));
+        long games = 0;
+        for (PgnReader.Game game = reader.next(); game != null; game = reader.next()) {
+            sink.accept(game);
+            games++;
+        }
+        return new long[]{games, reader.getSkipped()};
+    }
+
+    /**
+     * @return parts + 1 offsets; range i runs from offsets[i] up to offsets[i + 1]
+     * and starts at a game (or is empty)
+     */
+    static long[] split(FileChannel file, int parts) throws IOException {
+        long size = file.size();
+        long[] bounds = new long[parts + 1];
+        bounds[parts] = size;
+        for (int i = 1; i < parts; i++) {
+            long nominal = Math.max(bounds[i - 1], size / parts * i);
+            bounds[i] = nextGame(file, nominal, size);
+        }
+        return bounds;
+    }
+
+    /**
+     * @return the offset of the first game starting after from, or size
+     */
+    private static long nextGame(FileChannel file, long from, long size) throws IOException {
+        ByteBuffer scan = ByteBuffer.allocate(SCAN_BYTES);
+        //0: mid line, 1: at the start of a line, 2: at the start of a line after a blank one
+        int state = 0;
+        long position = from;
+        while (position < size) {
+            scan.clear();
+            int read = file.read(scan, position);
+            if (read < 0) {
+                break;
+            }
+            scan.flip();
+            while (scan.hasRemaining()) {
+                byte b = scan.get();
+                if (b == '[' && state == 2) {
+                    return position;
+                }
+                if (b == '\n') {
+                    state = (state == 0) ? 1 : 2;
+                }
+                else if (b != '\r') {
+                    state = 0;
+                }
+                position++;
+            }
+        }
+        return size;
+    }
+
+    //a byte range of a file, read with positional reads so ranges can share the channel
+    private static class RangeChannel implements ReadableByteChannel {
+        private final FileChannel file;
+        private long position;
+        private final long end;
+
+        RangeChannel(FileChannel file, long start, long end) {
+            this.file = file;
+            this.position = start;
+            this.end = end;
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            if (position >= end) {
+                return -1;
+            }
+            int limit = dst.limit();
+            dst.limit(dst.position() + (int) Math.min(dst.remaining(), end - position));
+            try {
+                int read = file.read(dst, position);
+                if (read > 0) {
+                    position += read;
+                }
+                return read;
+            }
+            finally {
+                dst.limit(limit);
+            }
+        }
+
+        @Override
+        public boolean isOpen() {
+            return file.isOpen();
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    public static void main(String[] args) {
+        Path path = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--threads" -> threads = Integer.parseInt(args[++i]);
+                default -> {
+                    if (path != null || args[i].startsWith("--")) {
+                        System.err.println("Usage: PgnImport FILE [--threads N]");
+                        System.exit(2);
+                    }
+                    path = Path.of(args[i]);
+                }
+            }
+        }
+        if (path == null) {
+            System.err.println("Usage: PgnImport FILE [--threads N]");
+            System.exit(2);
+        }
+
+        try {
+            Stats stats = read(path, threads, game -> {
+            });
+            System.out.printf("%,d games (%,d skipped) in %,d ms with %d threads: %,.0f games/s, %.1f MB/s%n",
+                    stats.games(), stats.skipped(), stats.elapsedNanos() / 1_000_000, threads,
+                    stats.gamesPerSecond(), stats.megabytesPerSecond());
+        }
+        catch (IOException | UncheckedIOException e) {
+            System.err.println("Import failed: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package chess.pgn;
+
+import chess.ChessGame;
+import chess.Fen;
+import chess.MoveBuffer;
+import chess.San;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reads games from PGN text one at a time, straight off a byte channel through
+ * a fixed-size buffer, so an archive of any size is read in constant memory.
+ * Each game's SAN moves are resolved against its legal moves and replayed, so
+ * the returned game is in its final position with every move in its history.
+ * <p>
+ * Comments, variations, NAGs and move numbers are skipped. A game that starts
+ * from a FEN tag is set up from it. A game whose moves can't be replayed is
+ * skipped and counted (see getSkipped), so one bad game doesn't stop an import.
+ * <p>
+ * Movetext is read as single bytes; tag values are decoded as UTF-8.
+ */
+public class PgnReader {
+    private static final int BUFFER_BYTES = 1 << 16;
+    //longer tokens and tag values are cut short; no move is that long
+    private static final int MAX_TOKEN = 256;
+    private static final int MAX_TAG_VALUE = 4096;
+    private static final String[] RESULTS = {"1-0", "0-1", "1/2-1/2", "*"};
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+    private final StringBuilder token = new StringBuilder(MAX_TOKEN);
+    private final byte[] tagValue = new byte[MAX_TAG_VALUE];
+    private final MoveBuffer legal = new MoveBuffer();
+    private long skipped;
+
+    public PgnReader(ReadableByteChannel channel) {
+        this.channel = channel;
+        buffer.limit(0);
+    }
+
+    /**
+     * A game read from PGN
+     *
+     * @param tags   the tag pairs, in the order they were read
+     * @param game   the game after its last move, with the moves in its history
+     * @param result "1-0", "0-1", "1/2-1/2" or "*"
+     */
+    public record Game(Map<String, String> tags, ChessGame game, String result) {
+    }
+
+    /**
+     * @return the next game, or null at the end of the input
+     */
+    public Game next() throws IOException {
+        Map<String, String> tags = new LinkedHashMap<>();
+        ChessGame game = null;
+        boolean started = false;
+        boolean inMoves = false;
+        boolean failed = false;
+        while (true) {
+            int c = peek();
+            String result = null;
+            if (c < 0 || (c == '[' && inMoves)) {
+                //the input ended, or the next game's tags started, without a result
+                if (!started) {
+                    return null;
+                }
+                result = "*";
+            }
+            else {
+                read();
+                switch (c) {
+                    case ' ', '\t', '\r', '\n', '.' -> {
+                    }
+                    case '[' -> {
+                        readTag(tags);
+                        started = true;
+                    }
+                    case '{' -> skipPast('}');
+                    case ';', '%' -> skipPast('\n');
+                    case '(' -> skipVariation();
+                    case '$' -> readToken(c);
+                    default -> {
+                        started = true;
+                        inMoves = true;
+                        readToken(c);
+                        result = result();
+                        if (result == null && !failed) {
+                            try {
+                                if (game == null) {
+                                    game = setUp(tags);
+                                }
+                                int start = moveStart();
+                                if (start < token.length()) {
+                                    game.makeMove(San.parse(game, token, start, token.length(), legal));
+                                }
+                            }
+                            catch (IllegalArgumentException e) {
+                                //keep reading to the end of the game, then skip it
+                                failed = true;
+                            }
+                        }
+                    }
+                }
+            }
+            if (result != null) {
+                if (!failed) {
+                    try {
+                        return new Game(tags, (game == null) ? setUp(tags) : game, result);
+                    }
+                    catch (IllegalArgumentException e) {
+                        //a bad FEN tag on a game without moves
+                    }
+                }
+                skipped++;
+                if (c < 0) {
+                    return null;
+                }
+                tags = new LinkedHashMap<>();
+                game = null;
+                started = false;
+                inMoves = false;
+                failed = false;
+            }
+        }
+    }
+
+    /**
+     * @return how many games so far couldn't be replayed and were skipped
+     */
+    public long getSkipped() {
+        return skipped;
+    }
+
+    private static ChessGame setUp(Map<String, String> tags) {
+        String fen = tags.get("FEN");
+        return (fen == null) ? new ChessGame() : Fen.parse(fen);
+    }
+
+    /**
+     * @return the result the token spells, or null if it isn't one
+     */
+    private String result() {
+        for (String result : RESULTS) {
+            if (result.contentEquals(token)) {
+                return result;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return where the move starts in the token, after any move number such
+     * as "12." or "12..."
+     */
+    private int moveStart() {
+        int i = 0;
+        while (i < token.length() && Character.isDigit(token.charAt(i))) {
+            i++;
+        }
+        if (i == 0 || i == token.length() || token.charAt(i) != '.') {
+            //no number, or a castle written with zeros
+            return 0;
+        }
+        while (i < token.length() && token.charAt(i) == '.') {
+            i++;
+        }
+        return i;
+    }
+
+    //reads a token that started with first, up to whitespace or the next delimiter
+    private void readToken(int first) throws IOException {
+        token.setLength(0);
+        token.append((char) first);
+        while (true) {
+            int c = peek();
+            if (c < 0 || c <= ' ' || "{}()[];$".indexOf(c) >= 0) {
+                return;
+            }
+            read();
+            if (token.length() < MAX_TOKEN) {
+                token.append((char) c);
+            }
+        }
+    }
+
+    //reads a tag pair after its '[', through the closing ']'
+    private void readTag(Map<String, String> tags) throws IOException {
+        int c = read();
+        while (c == ' ' || c == '\t') {
+            c = read();
+        }
+        token.setLength(0);
+        while (c > ' ' && c != '"' && c != ']' && token.length() < MAX_TOKEN) {
+            token.append((char) c);
+            c = read();
+        }
+        while (c == ' ' || c == '\t') {
+            c = read();
+        }
+        int length = 0;
+        if (c == '"') {
+            for (c = read(); c >= 0 && c != '"' && c != '\n'; c = read()) {
+                if (c == '\\') {
+                    c = read();
+                }
+                if (length < MAX_TAG_VALUE && c >= 0) {
+                    tagValue[length++] = (byte) c;
+                }
+            }
+        }
+        while (c >= 0 && c != ']' && c != '\n') {
+            c = read();
+        }
+        tags.put(token.toString(), new String(tagValue, 0, length, StandardCharsets.UTF_8));
+    }
+
+    private void skipPast(int end) throws IOException {
+        int c;
+        do {
+            c = read();
+        } while (c >= 0 && c != end);
+    }
+
+    //skips a variation after its '(', including any nested in it
+    private void skipVariation() throws IOException {
+        int depth = 1;
+        while (depth > 0) {
+            int c = read();
+            if (c < 0) {
+                return;
+            }
+            switch (c) {
+                case '(' -> depth++;
+                case ')' -> depth--;
+                case '{' -> skipPast('}');
+                case ';' -> skipPast('\n');
+                default -> {
+                }
+            }
+        }
+    }
+
+    private int peek() throws IOException {
+        if (!buffer.hasRemaining()) {
+            buffer.clear();
+            int read;
+            do {
+                read = channel.read(buffer);
+            } while (read == 0);
+            buffer.flip();
+            if (read < 0) {
+                return -1;
+            }
+        }
+        return buffer.get(buffer.position()) & 0xFF;
+    }
+
+    private int read() throws IOException {
+        int c = peek();
+        if (c >= 0) {
+            buffer.get();
+        }
+        return c;
+    }
+}
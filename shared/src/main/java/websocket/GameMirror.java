@@ -0,0 +1,68 @@
+package websocket;
+
+import chess.ChessGame;
+import chess.InvalidMoveException;
+import websocket.messages.GameDeltaMessage;
+import websocket.messages.LoadGameMessage;
+import websocket.messages.ServerMessage;
+
+/**
+ * A client's copy of the game it is connected to, kept up to date from
+ * LOAD_GAME and GAME_DELTA messages. A delta is played on the copy and the
+ * result checked against the delta's position hash and status. If the move
+ * can't be played or either differs, a delta was lost or reordered: the copy
+ * is dropped and the client connects again to be sent the whole game. The
+ * same goes after a reconnect, since deltas may have been missed while it was
+ * down (see reset).
+ */
+public class GameMirror {
+    private ChessGame game;
+
+    /**
+     * @return true if the copy is up to date, or false if the client has to
+     * send CONNECT again to get the whole game
+     */
+    public boolean apply(ServerMessage message) {
+        if (message instanceof LoadGameMessage load) {
+            game = load.getGame();
+            return game != null;
+        }
+        if (message instanceof GameDeltaMessage delta) {
+            if (game == null || delta.getMove() == null) {
+                game = null;
+                return false;
+            }
+            try {
+                game.makeMove(delta.getMove());
+            }
+            catch (InvalidMoveException e) {
+                game = null;
+                return false;
+            }
+            if (game.getZobristKey() != delta.getHash()
+                    || GameDeltaMessage.GameStatus.of(game) != delta.getStatus()) {
+                game = null;
+                return false;
+            }
+            return true;
+        }
+        //notifications and errors don't change the game
+        return game != null;
+    }
+
+    /**
+     * Drops the copy, for when the connection is lost; deltas are then refused
+     * until the next LOAD_GAME
+     */
+    public void reset() {
+        game = null;
+    }
+
+    /**
+     * @return the game as of the last message applied, or null if the client
+     * is waiting for the whole game
+     */
+    public ChessGame getGame() {
+        return game;
+    }
+}
@@ -0,0 +1,356 @@
+package websocket;
+
+/**
+ * A pull parser over JSON text, just big enough for the websocket messages.
+ * Field names and enum constants are compared where they stand in the text
+ * (or in a reused buffer if they hold escapes), so only string values
+ * allocate. Any method throws IllegalArgumentException if the text isn't the
+ * JSON it expects.
+ */
+final class JsonCursor {
+    //no message nests this deep; past it, skipped values are refused rather
+    //than recursed into, so a hostile frame can't overflow the stack
+    private static final int MAX_DEPTH = 64;
+
+    private final CharSequence text;
+    private int position;
+    //the last field name or enum constant read: text[nameStart, nameEnd) when
+    //it has no escapes, otherwise unescaped into name
+    private int nameStart;
+    private int nameEnd;
+    private final StringBuilder name = new StringBuilder(32);
+    private boolean nameEscaped;
+
+    JsonCursor(CharSequence text) {
+        this.text = text;
+    }
+
+    void beginObject() {
+        expect('{');
+    }
+
+    /**
+     * Moves to the next field of the current object and reads its name
+     *
+     * @return false at the end of the object, which is then consumed
+     */
+    boolean nextField() {
+        skipWhitespace();
+        char c = peek();
+        if (c == '}') {
+            position++;
+            return false;
+        }
+        if (c == ',') {
+            position++;
+        }
+        else if (previousSignificant() != '{') {
+            throw error("expected ',' or '}'");
+        }
+        readName();
+        expect(':');
+        return true;
+    }
+
+    boolean nameIs(String expected) {
+        if (nameEscaped) {
+            return expected.contentEquals(name);
+        }
+        int length = nameEnd - nameStart;
+        if (length != expected.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (text.charAt(nameStart + i) != expected.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    void beginArray() {
+        expect('[');
+    }
+
+    /**
+     * @return false at the end of the array, which is then consumed
+     */
+    boolean nextElement() {
+        skipWhitespace();
+        char c = peek();
+        if (c == ']') {
+            position++;
+            return false;
+        }
+        if (c == ',') {
+            position++;
+        }
+        else if (previousSignificant() != '[') {
+            throw error("expected ',' or ']'");
+        }
+        return true;
+    }
+
+    /**
+     * @return true, consuming it, if the next value is null
+     */
+    boolean nextIsNull() {
+        skipWhitespace();
+        if (startsWith("null")) {
+            position += 4;
+            return true;
+        }
+        return false;
+    }
+
+    String readString() {
+        readName();
+        return nameEscaped ? name.toString() : text.subSequence(nameStart, nameEnd).toString();
+    }
+
+    /**
+     * @return the constant the next string names
+     */
+    <E extends Enum<E>> E readEnum(E[] constants) {
+        readName();
+        for (E constant : constants) {
+            if (nameIs(constant.name())) {
+                return constant;
+            }
+        }
+        throw error("unknown constant");
+    }
+
+    boolean readBoolean() {
+        skipWhitespace();
+        if (startsWith("true")) {
+            position += 4;
+            return true;
+        }
+        if (startsWith("false")) {
+            position += 5;
+            return false;
+        }
+        throw error("expected true or false");
+    }
+
+    long readLong() {
+        skipWhitespace();
+        int start = position;
+        boolean negative = position < text.length() && text.charAt(position) == '-';
+        if (negative) {
+            position++;
+        }
+        long value = 0;
+        int digits = 0;
+        while (position < text.length() && text.charAt(position) >= '0' && text.charAt(position) <= '9') {
+            int digit = text.charAt(position++) - '0';
+            //accumulate negatively so Long.MIN_VALUE fits
+            if (value < (Long.MIN_VALUE + digit) / 10) {
+                throw error("number out of range");
+            }
+            value = value * 10 - digit;
+            digits++;
+        }
+        if (digits == 0 || (position < text.length() && ".eE".indexOf(text.charAt(position)) >= 0)) {
+            position = start;
+            throw error("expected a whole number");
+        }
+        if (!negative && value == Long.MIN_VALUE) {
+            throw error("number out of range");
+        }
+        return negative ? value : -value;
+    }
+
+    int readInt() {
+        long value = readLong();
+        if (value != (int) value) {
+            throw error("number out of range");
+        }
+        return (int) value;
+    }
+
+    /**
+     * Skips the next value, whatever it is
+     */
+    void skipValue() {
+        skipValue(0);
+    }
+
+    private void skipValue(int depth) {
+        skipWhitespace();
+        char c = peek();
+        if ((c == '{' || c == '[') && depth >= MAX_DEPTH) {
+            throw error("too deeply nested");
+        }
+        switch (c) {
+            case '{' -> {
+                beginObject();
+                while (nextField()) {
+                    skipValue(depth + 1);
+                }
+            }
+            case '[' -> {
+                beginArray();
+                while (nextElement()) {
+                    skipValue(depth + 1);
+                }
+            }
+            case '"' -> readName();
+            default -> {
+                if (startsWith("null") || startsWith("true")) {
+                    position += 4;
+                }
+                else if (startsWith("false")) {
+                    position += 5;
+                }
+                else {
+                    skipNumber();
+                }
+            }
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if anything but whitespace is left
+     */
+    void end() {
+        skipWhitespace();
+        if (position != text.length()) {
+            throw error("unexpected text after the value");
+        }
+    }
+
+    private void skipNumber() {
+        int start = position;
+        while (position < text.length() && isNumberChar(text.charAt(position))) {
+            position++;
+        }
+        if (position == start) {
+            throw error("expected a value");
+        }
+    }
+
+    //reads a string, leaving it in place if it has no escapes
+    private void readName() {
+        expect('"');
+        int start = position;
+        while (position < text.length()) {
+            char c = text.charAt(position);
+            if (c == '"') {
+                nameStart = start;
+                nameEnd = position++;
+                nameEscaped = false;
+                return;
+            }
+            if (c == '\\') {
+                break;
+            }
+            position++;
+        }
+        position = start - 1;
+        readString(name);
+        nameEscaped = true;
+    }
+
+    private void readString(StringBuilder out) {
+        out.setLength(0);
+        expect('"');
+        while (true) {
+            //copy the run up to the next quote or escape in one go
+            int start = position;
+            while (position < text.length() && text.charAt(position) != '"' && text.charAt(position) != '\\') {
+                position++;
+            }
+            out.append(text, start, position);
+            if (position >= text.length()) {
+                throw error("unterminated string");
+            }
+            if (text.charAt(position++) == '"') {
+                return;
+            }
+            if (position >= text.length()) {
+                throw error("unterminated string");
+            }
+            char escape = text.charAt(position++);
+            switch (escape) {
+                case '"', '\\', '/' -> out.append(escape);
+                case 'b' -> out.append('\b');
+                case 'f' -> out.append('\f');
+                case 'n' -> out.append('\n');
+                case 'r' -> out.append('\r');
+                case 't' -> out.append('\t');
+                case 'u' -> {
+                    if (position + 4 > text.length()) {
+                        throw error("bad \\u escape");
+                    }
+                    int code = 0;
+                    for (int i = 0; i < 4; i++) {
+                        int digit = Character.digit(text.charAt(position++), 16);
+                        if (digit < 0) {
+                            throw error("bad \\u escape");
+                        }
+                        code = code * 16 + digit;
+                    }
+                    out.append((char) code);
+                }
+                default -> throw error("bad escape \\" + escape);
+            }
+        }
+    }
+
+    private char previousSignificant() {
+        for (int i = position - 1; i >= 0; i--) {
+            char c = text.charAt(i);
+            if (!isWhitespace(c)) {
+                return c;
+            }
+        }
+        return 0;
+    }
+
+    private boolean startsWith(String literal) {
+        if (position + literal.length() > text.length()) {
+            return false;
+        }
+        for (int i = 0; i < literal.length(); i++) {
+            if (text.charAt(position + i) != literal.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void expect(char c) {
+        skipWhitespace();
+        if (peek() != c) {
+            throw error("expected '" + c + "'");
+        }
+        position++;
+    }
+
+    private char peek() {
+        if (position >= text.length()) {
+            throw error("unexpected end of text");
+        }
+        return text.charAt(position);
+    }
+
+    private void skipWhitespace() {
+        while (position < text.length() && isWhitespace(text.charAt(position))) {
+            position++;
+        }
+    }
+
+    private static boolean isNumberChar(char c) {
+        return (c >= '0' && c <= '9') || c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E';
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\r';
+    }
+
+    private IllegalArgumentException error(String problem) {
+        return new IllegalArgumentException("Bad JSON at " + position + ": " + problem);
+    }
+}
@@ -0,0 +1,582 @@
+package websocket;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.GameJson;
+import websocket.commands.ConnectCommand;
+import websocket.commands.MakeMoveCommand;
+import websocket.commands.UserGameCommand;
+import websocket.messages.ErrorMessage;
+import websocket.messages.GameDeltaMessage;
+import websocket.messages.LoadGameMessage;
+import websocket.messages.NotificationMessage;
+import websocket.messages.ServerMessage;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * JSON for the websocket messages and commands, written by hand instead of by
+ * reflection. The output is byte for byte what {@code new Gson().toJson}
+ * produces: the same field order (a subclass's fields before its parent's),
+ * nulls left out and the same escaping, so either side of a connection can
+ * use Gson or this codec.
+ * <p>
+ * A game is written in the GameJson shape, which is also what Gson writes for
+ * it, and read back through GameJson.toGame, so the bitboards, keys and
+ * scores are rebuilt rather than trusted. An instance writes into one
+ * reusable buffer, so it is used by one thread at a time. Reading throws
+ * IllegalArgumentException for malformed JSON.
+ */
+public class MessageCodec {
+    private static final ServerMessage.ServerMessageType[] MESSAGE_TYPES = ServerMessage.ServerMessageType.values();
+    private static final UserGameCommand.CommandType[] COMMAND_TYPES = UserGameCommand.CommandType.values();
+    private static final GameDeltaMessage.GameStatus[] STATUSES = GameDeltaMessage.GameStatus.values();
+    private static final ChessGame.TeamColor[] TEAMS = ChessGame.TeamColor.values();
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    //each piece's JSON, indexed by TeamColor ordinal * 6 + PieceType ordinal
+    private static final byte[][] PIECES = new byte[12][];
+
+    static {
+        for (ChessGame.TeamColor color : TEAMS) {
+            for (ChessPiece.PieceType type : TYPES) {
+                PIECES[color.ordinal() * 6 + type.ordinal()] = ascii("{\"" + GameJson.PIECE_COLOR + "\":\"" + color
+                        + "\",\"" + GameJson.PIECE_TYPE + "\":\"" + type + "\"}");
+            }
+        }
+    }
+
+    private byte[] out = new byte[4096];
+    private int size;
+    private ByteBuffer view = ByteBuffer.wrap(out);
+    private final byte[] digits = new byte[20];
+
+    /**
+     * @return the JSON as UTF-8, in a buffer that is reused by the next encode
+     */
+    public ByteBuffer encode(ServerMessage message) {
+        size = 0;
+        writeMessage(message);
+        return view();
+    }
+
+    /**
+     * @return the JSON as UTF-8, in a buffer that is reused by the next encode
+     */
+    public ByteBuffer encode(UserGameCommand command) {
+        size = 0;
+        writeCommand(command);
+        return view();
+    }
+
+    public String toJson(ServerMessage message) {
+        size = 0;
+        writeMessage(message);
+        return new String(out, 0, size, StandardCharsets.UTF_8);
+    }
+
+    public String toJson(UserGameCommand command) {
+        size = 0;
+        writeCommand(command);
+        return new String(out, 0, size, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return a LoadGameMessage, NotificationMessage, ErrorMessage or
+     * GameDeltaMessage, by the message's type
+     */
+    public static ServerMessage readServerMessage(CharSequence json) {
+        JsonCursor in = new JsonCursor(json);
+        ServerMessage.ServerMessageType type = null;
+        ChessGame game = null;
+        String message = null;
+        String errorMessage = null;
+        ChessMove move = null;
+        GameDeltaMessage.GameStatus status = null;
+        long hash = 0;
+        in.beginObject();
+        while (in.nextField()) {
+            if (in.nextIsNull()) {
+                continue;
+            }
+            if (in.nameIs("serverMessageType")) {
+                type = in.readEnum(MESSAGE_TYPES);
+            }
+            else if (in.nameIs("game")) {
+                game = readGame(in);
+            }
+            else if (in.nameIs("message")) {
+                message = in.readString();
+            }
+            else if (in.nameIs("errorMessage")) {
+                errorMessage = in.readString();
+            }
+            else if (in.nameIs("move")) {
+                move = readMove(in);
+            }
+            else if (in.nameIs("status")) {
+                status = in.readEnum(STATUSES);
+            }
+            else if (in.nameIs("hash")) {
+                hash = in.readLong();
+            }
+            else {
+                in.skipValue();
+            }
+        }
+        in.end();
+        if (type == null) {
+            throw new IllegalArgumentException("Bad JSON: no serverMessageType");
+        }
+        return switch (type) {
+            case LOAD_GAME -> new LoadGameMessage(game);
+            case NOTIFICATION -> new NotificationMessage(message);
+            case ERROR -> new ErrorMessage(errorMessage);
+            case GAME_DELTA -> new GameDeltaMessage(move, status, hash);
+        };
+    }
+
+    /**
+     * @return a MakeMoveCommand for MAKE_MOVE, a ConnectCommand for a CONNECT
+     * that says whether it accepts deltas, otherwise a UserGameCommand
+     */
+    public static UserGameCommand readCommand(CharSequence json) {
+        JsonCursor in = new JsonCursor(json);
+        UserGameCommand.CommandType type = null;
+        String authToken = null;
+        Integer gameID = null;
+        ChessMove move = null;
+        Boolean acceptsDeltas = null;
+        in.beginObject();
+        while (in.nextField()) {
+            if (in.nextIsNull()) {
+                continue;
+            }
+            if (in.nameIs("commandType")) {
+                type = in.readEnum(COMMAND_TYPES);
+            }
+            else if (in.nameIs("authToken")) {
+                authToken = in.readString();
+            }
+            else if (in.nameIs("gameID")) {
+                gameID = in.readInt();
+            }
+            else if (in.nameIs("move")) {
+                move = readMove(in);
+            }
+            else if (in.nameIs("acceptsDeltas")) {
+                acceptsDeltas = in.readBoolean();
+            }
+            else {
+                in.skipValue();
+            }
+        }
+        in.end();
+        if (type == UserGameCommand.CommandType.MAKE_MOVE) {
+            return new MakeMoveCommand(authToken, gameID, move);
+        }
+        if (type == UserGameCommand.CommandType.CONNECT && acceptsDeltas != null) {
+            return new ConnectCommand(authToken, gameID, acceptsDeltas);
+        }
+        return new UserGameCommand(type, authToken, gameID);
+    }
+
+    private void writeMessage(ServerMessage message) {
+        put('{');
+        switch (message) {
+            case LoadGameMessage load when load.getGame() != null -> {
+                name("game");
+                writeGame(load.getGame());
+            }
+            case NotificationMessage notification when notification.getMessage() != null -> {
+                name("message");
+                writeString(notification.getMessage());
+            }
+            case ErrorMessage error when error.getErrorMessage() != null -> {
+                name("errorMessage");
+                writeString(error.getErrorMessage());
+            }
+            case GameDeltaMessage delta -> {
+                if (delta.getMove() != null) {
+                    name("move");
+                    writeMove(delta.getMove());
+                }
+                if (delta.getStatus() != null) {
+                    name("status");
+                    writeString(delta.getStatus().name());
+                }
+                name("hash");
+                writeLong(delta.getHash());
+            }
+            default -> {
+            }
+        }
+        if (message.getServerMessageType() != null) {
+            name("serverMessageType");
+            writeString(message.getServerMessageType().name());
+        }
+        put('}');
+    }
+
+    private void writeCommand(UserGameCommand command) {
+        put('{');
+        if (command instanceof MakeMoveCommand makeMove && makeMove.getMove() != null) {
+            name("move");
+            writeMove(makeMove.getMove());
+        }
+        if (command instanceof ConnectCommand connect) {
+            name("acceptsDeltas");
+            put(connect.acceptsDeltas() ? "true" : "false");
+        }
+        if (command.getCommandType() != null) {
+            name("commandType");
+            writeString(command.getCommandType().name());
+        }
+        if (command.getAuthToken() != null) {
+            name("authToken");
+            writeString(command.getAuthToken());
+        }
+        if (command.getGameID() != null) {
+            name("gameID");
+            writeLong(command.getGameID());
+        }
+        put('}');
+    }
+
+    //the GameJson shape
+    private void writeGame(ChessGame game) {
+        put('{');
+        ChessBoard board = game.getBoard();
+        if (board != null) {
+            name(GameJson.BOARD);
+            put('{');
+            name(GameJson.SQUARES);
+            put('[');
+            for (int row = 1; row <= 8; row++) {
+                if (row > 1) {
+                    put(',');
+                }
+                put('[');
+                for (int col = 1; col <= 8; col++) {
+                    if (col > 1) {
+                        put(',');
+                    }
+                    ChessPiece piece = board.getPiece(ChessBoard.square(row, col));
+                    if (piece == null) {
+                        put("null");
+                    }
+                    else {
+                        put(PIECES[piece.getTeamColor().ordinal() * 6 + piece.getPieceType().ordinal()]);
+                    }
+                }
+                put(']');
+            }
+            put(']');
+            put('}');
+        }
+        if (game.getTeamTurn() != null) {
+            name(GameJson.TEAM_TURN);
+            writeString(game.getTeamTurn().name());
+        }
+        name(GameJson.CASTLING_RIGHTS);
+        writeLong(game.getCastlingRights());
+        name(GameJson.EN_PASSANT_SQUARE);
+        writeLong(game.getEnPassantSquare());
+        put('}');
+    }
+
+    private void writeMove(ChessMove move) {
+        put('{');
+        if (move.getStartPosition() != null) {
+            name("startPosition");
+            writePosition(move.getStartPosition());
+        }
+        if (move.getEndPosition() != null) {
+            name("endPosition");
+            writePosition(move.getEndPosition());
+        }
+        if (move.getPromotionPiece() != null) {
+            name("promotionPiece");
+            writeString(move.getPromotionPiece().name());
+        }
+        put('}');
+    }
+
+    private void writePosition(ChessPosition position) {
+        put("{\"row\":");
+        writeLong(position.getRow());
+        put(",\"col\":");
+        writeLong(position.getColumn());
+        put('}');
+    }
+
+    private static ChessGame readGame(JsonCursor in) {
+        ChessBoard board = null;
+        ChessGame.TeamColor turn = ChessGame.TeamColor.WHITE;
+        int castling = -1;
+        int enPassant = -1;
+        in.beginObject();
+        while (in.nextField()) {
+            if (in.nextIsNull()) {
+                continue;
+            }
+            if (in.nameIs(GameJson.BOARD)) {
+                board = readBoard(in);
+            }
+            else if (in.nameIs(GameJson.TEAM_TURN)) {
+                turn = in.readEnum(TEAMS);
+            }
+            else if (in.nameIs(GameJson.CASTLING_RIGHTS)) {
+                castling = in.readInt();
+            }
+            else if (in.nameIs(GameJson.EN_PASSANT_SQUARE)) {
+                enPassant = in.readInt();
+            }
+            else {
+                in.skipValue();
+            }
+        }
+        if (board == null) {
+            throw new IllegalArgumentException("Bad JSON: game without a board");
+        }
+        return GameJson.toGame(board, turn, castling, enPassant);
+    }
+
+    private static ChessBoard readBoard(JsonCursor in) {
+        ChessBoard board = new ChessBoard();
+        in.beginObject();
+        while (in.nextField()) {
+            if (!in.nameIs(GameJson.SQUARES) || in.nextIsNull()) {
+                in.skipValue();
+                continue;
+            }
+            in.beginArray();
+            int row = 0;
+            while (in.nextElement()) {
+                if (++row > 8) {
+                    throw new IllegalArgumentException("Bad JSON: board with more than 8 rows");
+                }
+                in.beginArray();
+                int col = 0;
+                while (in.nextElement()) {
+                    if (++col > 8) {
+                        throw new IllegalArgumentException("Bad JSON: row " + row + " with more than 8 squares");
+                    }
+                    if (!in.nextIsNull()) {
+                        board.addPiece(ChessBoard.square(row, col), readPiece(in));
+                    }
+                }
+                if (col != 8) {
+                    throw new IllegalArgumentException("Bad JSON: row " + row + " with " + col + " squares");
+                }
+            }
+            if (row != 8) {
+                throw new IllegalArgumentException("Bad JSON: board with " + row + " rows");
+            }
+        }
+        return board;
+    }
+
+    private static ChessPiece readPiece(JsonCursor in) {
+        ChessGame.TeamColor color = null;
+        ChessPiece.PieceType type = null;
+        in.beginObject();
+        while (in.nextField()) {
+            if (in.nameIs(GameJson.PIECE_COLOR)) {
+                color = in.readEnum(TEAMS);
+            }
+            else if (in.nameIs(GameJson.PIECE_TYPE)) {
+                type = in.readEnum(TYPES);
+            }
+            else {
+                in.skipValue();
+            }
+        }
+        if (color == null || type == null) {
+            throw new IllegalArgumentException("Bad JSON: piece without a color and type");
+        }
+        return ChessPiece.of(color, type);
+    }
+
+    private static ChessMove readMove(JsonCursor in) {
+        ChessPosition start = null;
+        ChessPosition end = null;
+        ChessPiece.PieceType promotion = null;
+        in.beginObject();
+        while (in.nextField()) {
+            if (in.nextIsNull()) {
+                continue;
+            }
+            if (in.nameIs("startPosition")) {
+                start = readPosition(in);
+            }
+            else if (in.nameIs("endPosition")) {
+                end = readPosition(in);
+            }
+            else if (in.nameIs("promotionPiece")) {
+                promotion = in.readEnum(TYPES);
+            }
+            else {
+                in.skipValue();
+            }
+        }
+        if (start == null || end == null) {
+            throw new IllegalArgumentException("Bad JSON: move without a start and end");
+        }
+        return ChessMove.of(start, end, promotion);
+    }
+
+    private static ChessPosition readPosition(JsonCursor in) {
+        int row = 0;
+        int col = 0;
+        in.beginObject();
+        while (in.nextField()) {
+            if (in.nameIs("row")) {
+                row = in.readInt();
+            }
+            else if (in.nameIs("col")) {
+                col = in.readInt();
+            }
+            else {
+                in.skipValue();
+            }
+        }
+        return ChessPosition.of(row, col);
+    }
+
+    //writes "name": with a comma first unless it opens the object
+    private void name(String name) {
+        if (out[size - 1] != '{') {
+            put(',');
+        }
+        put('"');
+        put(name);
+        put('"');
+        put(':');
+    }
+
+    //escapes as Gson does by default: quotes, backslashes, control characters, the
+    //JavaScript line separators and, to be safe in HTML, < > & = and '
+    private void writeString(String value) {
+        ensure(value.length() * 6 + 2);
+        out[size++] = '"';
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> escape('"');
+                case '\\' -> escape('\\');
+                case '\t' -> escape('t');
+                case '\b' -> escape('b');
+                case '\n' -> escape('n');
+                case '\r' -> escape('r');
+                case '\f' -> escape('f');
+                case '<', '>', '&', '=', '\'', '\u2028', '\u2029' -> unicodeEscape(c);
+                default -> {
+                    if (c < 0x20) {
+                        unicodeEscape(c);
+                    }
+                    else if (c < 0x80) {
+                        out[size++] = (byte) c;
+                    }
+                    else if (c < 0x800) {
+                        out[size++] = (byte) (0xC0 | (c >> 6));
+                        out[size++] = (byte) (0x80 | (c & 0x3F));
+                    }
+                    else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                            && Character.isLowSurrogate(value.charAt(i + 1))) {
+                        int code = Character.toCodePoint(c, value.charAt(++i));
+                        out[size++] = (byte) (0xF0 | (code >> 18));
+                        out[size++] = (byte) (0x80 | ((code >> 12) & 0x3F));
+                        out[size++] = (byte) (0x80 | ((code >> 6) & 0x3F));
+                        out[size++] = (byte) (0x80 | (code & 0x3F));
+                    }
+                    else if (Character.isSurrogate(c)) {
+                        //an unpaired surrogate can't be encoded, and String.getBytes writes '?'
+                        out[size++] = '?';
+                    }
+                    else {
+                        out[size++] = (byte) (0xE0 | (c >> 12));
+                        out[size++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                        out[size++] = (byte) (0x80 | (c & 0x3F));
+                    }
+                }
+            }
+        }
+        out[size++] = '"';
+    }
+
+    private void escape(char c) {
+        out[size++] = '\\';
+        out[size++] = (byte) c;
+    }
+
+    private void unicodeEscape(char c) {
+        out[size++] = '\\';
+        out[size++] = 'u';
+        out[size++] = HEX[(c >> 12) & 0xF];
+        out[size++] = HEX[(c >> 8) & 0xF];
+        out[size++] = HEX[(c >> 4) & 0xF];
+        out[size++] = HEX[c & 0xF];
+    }
+
+    private void writeLong(long value) {
+        ensure(20);
+        if (value == Long.MIN_VALUE) {
+            put("-9223372036854775808");
+            return;
+        }
+        if (value < 0) {
+            out[size++] = '-';
+            value = -value;
+        }
+        int count = 0;
+        do {
+            digits[count++] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        while (count > 0) {
+            out[size++] = digits[--count];
+        }
+    }
+
+    private void put(char c) {
+        ensure(1);
+        out[size++] = (byte) c;
+    }
+
+    //for ASCII text only
+    private void put(String ascii) {
+        ensure(ascii.length());
+        for (int i = 0; i < ascii.length(); i++) {
+            out[size++] = (byte) ascii.charAt(i);
+        }
+    }
+
+    private void put(byte[] bytes) {
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, out, size, bytes.length);
+        size += bytes.length;
+    }
+
+    private void ensure(int bytes) {
+        if (size + bytes > out.length) {
+            out = Arrays.copyOf(out, Math.max(out.length * 2, size + bytes));
+            view = ByteBuffer.wrap(out);
+        }
+    }
+
+    private ByteBuffer view() {
+        view.clear();
+        view.limit(size);
+        return view;
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,30 @@
+package websocket.commands;
+
+/**
+ * Joins a game's connection as a player or observer. A client that sets
+ * acceptsDeltas is sent a GAME_DELTA after each move instead of the whole
+ * game; it still gets a LOAD_GAME in answer to every connect, so connecting
+ * again is how it asks for the whole game.
+ */
+public class ConnectCommand extends UserGameCommand {
+    private final boolean acceptsDeltas;
+
+    public ConnectCommand(String authToken, Integer gameID, boolean acceptsDeltas) {
+        super(CommandType.CONNECT, authToken, gameID);
+        this.acceptsDeltas = acceptsDeltas;
+    }
+
+    public boolean acceptsDeltas() {
+        return acceptsDeltas;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return super.equals(o) && o instanceof ConnectCommand that && acceptsDeltas == that.acceptsDeltas;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * super.hashCode() + Boolean.hashCode(acceptsDeltas);
+    }
+}
@@ -0,0 +1,31 @@
+package websocket.commands;
+
+import chess.ChessMove;
+
+import java.util.Objects;
+
+/**
+ * Asks the server to make a move in a game
+ */
+public class MakeMoveCommand extends UserGameCommand {
+    private final ChessMove move;
+
+    public MakeMoveCommand(String authToken, Integer gameID, ChessMove move) {
+        super(CommandType.MAKE_MOVE, authToken, gameID);
+        this.move = move;
+    }
+
+    public ChessMove getMove() {
+        return move;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return super.equals(o) && o instanceof MakeMoveCommand that && Objects.equals(move, that.move);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(super.hashCode(), move);
+    }
+}
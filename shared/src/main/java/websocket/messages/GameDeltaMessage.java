@@ -0,0 +1,81 @@
+package websocket.messages;
+
+import chess.ChessGame;
+import chess.ChessMove;
+
+import java.util.Objects;
+
+/**
+ * Sends a client only the move just made, in place of a whole LOAD_GAME, for
+ * clients that asked for it when connecting (see ConnectCommand). The client
+ * plays the move on its own copy of the game and compares the result against
+ * the status and position hash; if they differ it has missed something and
+ * asks for the whole game again (see GameMirror).
+ */
+public class GameDeltaMessage extends ServerMessage {
+    private final ChessMove move;
+    private final GameStatus status;
+    private final long hash;
+
+    public enum GameStatus {
+        IN_PROGRESS,
+        CHECK,
+        CHECKMATE,
+        STALEMATE;
+
+        /**
+         * @return the status of the team to move in the game
+         */
+        public static GameStatus of(ChessGame game) {
+            ChessGame.TeamColor turn = game.getTeamTurn();
+            if (game.isInCheckmate(turn)) {
+                return CHECKMATE;
+            }
+            if (game.isInStalemate(turn)) {
+                return STALEMATE;
+            }
+            return game.isInCheck(turn) ? CHECK : IN_PROGRESS;
+        }
+    }
+
+    /**
+     * @param hash the game's Zobrist key after the move
+     */
+    public GameDeltaMessage(ChessMove move, GameStatus status, long hash) {
+        super(ServerMessageType.GAME_DELTA);
+        this.move = move;
+        this.status = status;
+        this.hash = hash;
+    }
+
+    /**
+     * @param game the game after the move was made in it
+     * @return the delta for that move
+     */
+    public static GameDeltaMessage after(ChessGame game, ChessMove move) {
+        return new GameDeltaMessage(move, GameStatus.of(game), game.getZobristKey());
+    }
+
+    public ChessMove getMove() {
+        return move;
+    }
+
+    public GameStatus getStatus() {
+        return status;
+    }
+
+    public long getHash() {
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return super.equals(o) && o instanceof GameDeltaMessage that && hash == that.hash
+                && status == that.status && Objects.equals(move, that.move);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(super.hashCode(), move, status, hash);
+    }
+}
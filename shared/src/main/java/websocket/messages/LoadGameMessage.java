@@ -0,0 +1,31 @@
+package websocket.messages;
+
+import chess.ChessGame;
+
+import java.util.Objects;
+
+/**
+ * Sends a client the whole game, to draw after connecting and after every move
+ */
+public class LoadGameMessage extends ServerMessage {
+    private final ChessGame game;
+
+    public LoadGameMessage(ChessGame game) {
+        super(ServerMessageType.LOAD_GAME);
+        this.game = game;
+    }
+
+    public ChessGame getGame() {
+        return game;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return super.equals(o) && o instanceof LoadGameMessage that && Objects.equals(game, that.game);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(super.hashCode(), game);
+    }
+}
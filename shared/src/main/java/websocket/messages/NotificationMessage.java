@@ -0,0 +1,29 @@
+package websocket.messages;
+
+import java.util.Objects;
+
+/**
+ * Tells a client what another user did, such as connecting or making a move
+ */
+public class NotificationMessage extends ServerMessage {
+    private final String message;
+
+    public NotificationMessage(String message) {
+        super(ServerMessageType.NOTIFICATION);
+        this.message = message;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return super.equals(o) && o instanceof NotificationMessage that && Objects.equals(message, that.message);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(super.hashCode(), message);
+    }
+}
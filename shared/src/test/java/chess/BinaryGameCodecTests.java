@@ -0,0 +1,134 @@
+package chess;
+
+import chess.perft.PerftPosition;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+public class BinaryGameCodecTests {
+
+    private static void assertSamePosition(ChessGame expected, ChessGame actual) {
+        Assertions.assertEquals(expected.getBoard(), actual.getBoard());
+        Assertions.assertEquals(expected, actual);
+        Assertions.assertEquals(expected.getZobristKey(), actual.getZobristKey());
+        Assertions.assertEquals(expected.getBoard().getMidgameScore(), actual.getBoard().getMidgameScore());
+    }
+
+    @Test
+    @DisplayName("Reference Positions Round Trip")
+    public void referencePositions() {
+        for (PerftPosition position : PerftPosition.STANDARD) {
+            ChessGame game = position.toGame();
+            byte[] bytes = BinaryGameCodec.encode(game);
+            Assertions.assertEquals(BinaryGameCodec.POSITION_BYTES, bytes.length);
+            assertSamePosition(game, BinaryGameCodec.decode(bytes));
+        }
+    }
+
+    @Test
+    @DisplayName("Random Games Round Trip With And Without History")
+    public void randomGames() {
+        Random random = new Random(2100);
+        MoveBuffer buffer = new MoveBuffer();
+        for (int gameNumber = 0; gameNumber < 50; gameNumber++) {
+            ChessGame game = new ChessGame();
+            for (int ply = 0; ply < 100; ply++) {
+                buffer.clear();
+                game.generateLegalMoves(game.getTeamTurn(), buffer);
+                if (buffer.size() == 0) {
+                    break;
+                }
+                game.makeMove(buffer.get(random.nextInt(buffer.size())));
+                //en passant, castling rights and promotions all come up along the way
+                assertSamePosition(game, BinaryGameCodec.decode(BinaryGameCodec.encode(game)));
+            }
+
+            byte[] withHistory = BinaryGameCodec.encode(game, true);
+            Assertions.assertEquals(BinaryGameCodec.encodedSize(game, true), withHistory.length);
+            ChessGame decoded = BinaryGameCodec.decode(withHistory);
+            assertSamePosition(game, decoded);
+            Assertions.assertEquals(game.getHistorySize(), decoded.getHistorySize());
+            //the replayed history can be taken back to the start
+            while (decoded.getHistorySize() > 0) {
+                decoded.unmakeMove();
+                game.unmakeMove();
+                assertSamePosition(game, decoded);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Several Games Share A Buffer")
+    public void sharedBuffer() {
+        ChessGame first = PerftPosition.named("kiwipete").toGame();
+        ChessGame second = PerftPosition.named("position4").toGame();
+        ByteBuffer buffer = ByteBuffer.allocate(128);
+        BinaryGameCodec.write(first, false, buffer);
+        BinaryGameCodec.write(second, true, buffer);
+        buffer.flip();
+        assertSamePosition(first, BinaryGameCodec.read(buffer));
+        assertSamePosition(second, BinaryGameCodec.read(buffer));
+        Assertions.assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    @DisplayName("Malformed Input Is Rejected")
+    public void malformed() {
+        byte[] bytes = BinaryGameCodec.encode(new ChessGame());
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> BinaryGameCodec.decode(Arrays.copyOf(bytes, 20)));
+        byte[] badPiece = bytes.clone();
+        badPiece[10] = (byte) 0xFF;
+        Assertions.assertThrows(IllegalArgumentException.class, () -> BinaryGameCodec.decode(badPiece));
+        //claims one move of history, a1a1
+        byte[] badMove = Arrays.copyOf(bytes, bytes.length + 3);
+        badMove[0] |= 0x40;
+        badMove[bytes.length] = 1;
+        Assertions.assertThrows(IllegalArgumentException.class, () -> BinaryGameCodec.decode(badMove));
+        //a1a1 with promotion bits 7, which name no piece
+        byte[] badPromotion = badMove.clone();
+        badPromotion[bytes.length + 1] = 0x7C;
+        Assertions.assertThrows(IllegalArgumentException.class, () -> BinaryGameCodec.decode(badPromotion));
+        //e2e4 promoting to a king
+        byte[] kingPromotion = badMove.clone();
+        int e2e4 = PackedMove.of(ChessBoard.square(2, 5), ChessBoard.square(4, 5), ChessPiece.PieceType.KING, 0);
+        kingPromotion[bytes.length + 1] = (byte) (e2e4 >>> 8);
+        kingPromotion[bytes.length + 2] = (byte) e2e4;
+        Assertions.assertThrows(IllegalArgumentException.class, () -> BinaryGameCodec.decode(kingPromotion));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ChessMove.of(0x7000));
+    }
+
+    @Test
+    @DisplayName("Impossible Positions Are Rejected")
+    public void impossiblePositions() {
+        byte[] bytes = BinaryGameCodec.encode(new ChessGame());
+        //no white king: e1 is the low nibble of square pair e1-f1
+        byte[] noKing = bytes.clone();
+        noKing[2 + 2] &= (byte) 0xF0;
+        noKing[0] &= (byte) 0xF0;
+        Assertions.assertThrows(IllegalArgumentException.class, () -> BinaryGameCodec.decode(noKing));
+        //two white kings: d1 becomes a king too
+        byte[] twoKings = bytes.clone();
+        twoKings[2 + 1] = (byte) ((twoKings[2 + 1] & 0x0F) | ((ChessBoard.pieceIndex(ChessGame.TeamColor.WHITE,
+                ChessPiece.PieceType.KING) + 1) << 4));
+        twoKings[0] &= (byte) ~ChessGame.WHITE_QUEENSIDE;
+        Assertions.assertThrows(IllegalArgumentException.class, () -> BinaryGameCodec.decode(twoKings));
+        //kingside castling without the h1 rook, the high nibble of g1-h1
+        byte[] noRook = bytes.clone();
+        noRook[2 + 3] &= 0x0F;
+        Assertions.assertThrows(IllegalArgumentException.class, () -> BinaryGameCodec.decode(noRook));
+        //en passant on the wrong rank, then on the right rank with no pawn in front
+        for (int square : new int[]{ChessBoard.square(3, 5), ChessBoard.square(6, 5), ChessBoard.square(2, 5)}) {
+            byte[] badEnPassant = bytes.clone();
+            badEnPassant[1] = (byte) (square + 1);
+            Assertions.assertThrows(IllegalArgumentException.class, () -> BinaryGameCodec.decode(badEnPassant));
+        }
+        ChessGame afterE4 = Fen.parse("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1");
+        Assertions.assertEquals(ChessBoard.square(3, 5), BinaryGameCodec.decode(BinaryGameCodec.encode(afterE4))
+                .getEnPassantSquare());
+    }
+}
@@ -0,0 +1,103 @@
+package chess;
+
+import chess.perft.PerftPosition;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Random;
+
+public class FenTests {
+
+    //the FEN without its halfmove clock and move number, which ChessGame doesn't keep
+    private static String position(String fen) {
+        String[] fields = fen.split(" ");
+        return String.join(" ", fields[0], fields[1], fields[2], fields[3]);
+    }
+
+    @Test
+    @DisplayName("Start Position")
+    public void startPosition() {
+        ChessGame game = Fen.parse(Fen.START);
+        Assertions.assertEquals(new ChessGame(), game);
+        Assertions.assertEquals(new ChessGame().getZobristKey(), game.getZobristKey());
+        Assertions.assertEquals(Fen.START, Fen.format(new ChessGame()));
+    }
+
+    @Test
+    @DisplayName("Reference Positions Round Trip")
+    public void referencePositions() {
+        for (PerftPosition position : PerftPosition.STANDARD) {
+            ChessGame game = Fen.parse(position.fen());
+            Assertions.assertEquals(position(position.fen()), position(Fen.format(game)));
+            Assertions.assertEquals(game, Fen.parse(Fen.format(game)));
+        }
+    }
+
+    @Test
+    @DisplayName("Castling Rights And En Passant Are Read")
+    public void stateFields() {
+        ChessGame game = Fen.parse("r3k2r/8/8/3pP3/8/8/8/R3K2R w Kq d6 0 1");
+        Assertions.assertEquals(ChessGame.WHITE_KINGSIDE | ChessGame.BLACK_QUEENSIDE, game.getCastlingRights());
+        Assertions.assertEquals(ChessBoard.square(6, 4), game.getEnPassantSquare());
+        Assertions.assertEquals(ChessGame.TeamColor.WHITE, game.getTeamTurn());
+
+        //the clocks are optional, as in EPD
+        Assertions.assertEquals(game, Fen.parse("r3k2r/8/8/3pP3/8/8/8/R3K2R w Kq d6"));
+    }
+
+    @Test
+    @DisplayName("Random Games Round Trip Into One Reused Game")
+    public void randomGames() {
+        Random random = new Random(2200);
+        MoveBuffer buffer = new MoveBuffer();
+        ChessGame reused = new ChessGame();
+        for (int gameNumber = 0; gameNumber < 50; gameNumber++) {
+            ChessGame game = new ChessGame();
+            for (int ply = 0; ply < 100; ply++) {
+                buffer.clear();
+                game.generateLegalMoves(game.getTeamTurn(), buffer);
+                if (buffer.size() == 0) {
+                    break;
+                }
+                game.makeMove(buffer.get(random.nextInt(buffer.size())));
+                Fen.parse(Fen.format(game), reused);
+                Assertions.assertEquals(game, reused);
+                Assertions.assertEquals(game.getZobristKey(), reused.getZobristKey());
+                Assertions.assertEquals(game.getBoard().getMidgameScore(), reused.getBoard().getMidgameScore());
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "",
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR",
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP w KQkq - 0 1",
+            "rnbqkbnr/pppppppp/9/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+            "rnbqkbnr/ppppXppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR x KQkq - 0 1",
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KKkq - 0 1",
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBN1 w KQkq - 0 1",
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq e3 0 1",
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0",
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1 extra",
+            "8/8/8/8/8/8/8/K7 w - - 0 1",
+            "4k3/8/8/8/8/8/8/4K2R w Kk - 0 1",
+            "4k3/8/8/8/8/8/8/4K3 w - d6 0 1"})
+    @DisplayName("Malformed FEN Is Rejected")
+    public void malformed(String fen) throws InvalidMoveException {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Fen.parse(fen));
+
+        //a game parsed into is left as it was
+        ChessGame game = PerftPosition.named("kiwipete").toGame();
+        game.makeMove(game.legalMoves(game.getTeamTurn()).iterator().next());
+        ChessGame before = new ChessGame(game);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Fen.parse(fen, game));
+        Assertions.assertEquals(before, game);
+        Assertions.assertEquals(before.getZobristKey(), game.getZobristKey());
+        Assertions.assertEquals(1, game.getHistorySize());
+    }
+}
@@ -0,0 +1,99 @@
+package chess;
+
+import chess.perft.PerftPosition;
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Set;
+
+public class GameJsonTests {
+    private static final Gson GSON = new Gson();
+    private static final String EMPTY_ROW = "[null,null,null,null,null,null,null,null]";
+
+    @Test
+    @DisplayName("Gson Round Trips Games")
+    public void roundTrip() {
+        for (PerftPosition position : PerftPosition.STANDARD) {
+            ChessGame game = position.toGame();
+            ChessGame read = GSON.fromJson(GSON.toJson(game), ChessGame.class);
+            Assertions.assertEquals(game, read);
+            Assertions.assertEquals(game.getZobristKey(), read.getZobristKey());
+            Assertions.assertEquals(game.getBoard().getMidgameScore(), read.getBoard().getMidgameScore());
+        }
+        ChessGame afterE4 = Fen.parse("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1");
+        Assertions.assertEquals(afterE4, GSON.fromJson(GSON.toJson(afterE4), ChessGame.class));
+        Assertions.assertEquals("null", GSON.toJson(null, ChessGame.class));
+    }
+
+    @Test
+    @DisplayName("Only The Position Is Written")
+    public void onlyThePosition() {
+        JsonObject json = GSON.toJsonTree(new ChessGame()).getAsJsonObject();
+        Assertions.assertEquals(Set.of("board", "teamTurn", "castlingRights", "enPassantSquare"), json.keySet());
+        Assertions.assertEquals(Set.of("board"), json.getAsJsonObject("board").keySet());
+        Assertions.assertEquals(8, json.getAsJsonObject("board").getAsJsonArray("board").size());
+    }
+
+    @Test
+    @DisplayName("Boards Keep Their Original JSON Shape")
+    public void boardShape() {
+        ChessBoard board = new ChessBoard();
+        board.addPiece(new ChessPosition(1, 1), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
+        board.addPiece(new ChessPosition(8, 5), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
+        String json = GSON.toJson(board);
+        Assertions.assertEquals("{\"board\":[[{\"pieceColor\":\"WHITE\",\"type\":\"ROOK\"},null,null,null,null,"
+                + "null,null,null]," + (EMPTY_ROW + ",").repeat(6)
+                + "[null,null,null,null,{\"pieceColor\":\"BLACK\",\"type\":\"KING\"},null,null,null]]}", json);
+
+        ChessBoard read = GSON.fromJson(json, ChessBoard.class);
+        Assertions.assertEquals(board, read);
+        Assertions.assertEquals(board.getZobristKey(), read.getZobristKey());
+        Assertions.assertEquals(board.getMidgameScore(), read.getMidgameScore());
+    }
+
+    @Test
+    @DisplayName("Derived Board State Is Rebuilt, Not Read")
+    public void derivedStateIgnored() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        JsonObject json = GSON.toJsonTree(board).getAsJsonObject();
+        json.addProperty("zobristKey", 12345L);
+        json.addProperty("midgameScore", 999);
+        ChessBoard read = GSON.fromJson(json, ChessBoard.class);
+        Assertions.assertEquals(board.getZobristKey(), read.getZobristKey());
+        Assertions.assertEquals(board.getMidgameScore(), read.getMidgameScore());
+        Assertions.assertEquals(board.getPiece(new ChessPosition(1, 5)), read.getPiece(new ChessPosition(1, 5)));
+    }
+
+    @Test
+    @DisplayName("Missing Castling Rights Are Worked Out From The Board")
+    public void missingCastlingRights() {
+        String json = "{\"board\":{\"board\":[[{\"pieceColor\":\"WHITE\",\"type\":\"ROOK\"},null,null,null,"
+                + "{\"pieceColor\":\"WHITE\",\"type\":\"KING\"},null,null,null]," + (EMPTY_ROW + ",").repeat(7)
+                .replaceAll(",$", "") + "]},\"teamTurn\":\"WHITE\"}";
+        ChessGame game = GSON.fromJson(json, ChessGame.class);
+        Assertions.assertEquals(ChessGame.WHITE_QUEENSIDE, game.getCastlingRights());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "{\"teamTurn\":\"WHITE\"}",
+            "{\"board\":{\"board\":[[]]}}",
+            "{\"board\":{\"board\":[[{\"pieceColor\":\"WHITE\"}]]}}",
+            "{\"board\":{\"board\":[" + EMPTY_ROW + "]}, \"teamTurn\":\"PURPLE\"}",
+            //castling with no king or rook, and en passant with no pawn
+            "{\"board\":{\"board\":[" + EMPTY_ROW + "," + EMPTY_ROW + "," + EMPTY_ROW + "," + EMPTY_ROW + ","
+                    + EMPTY_ROW + "," + EMPTY_ROW + "," + EMPTY_ROW + "," + EMPTY_ROW + "]},\"castlingRights\":1}",
+            "{\"board\":{\"board\":[" + EMPTY_ROW + "," + EMPTY_ROW + "," + EMPTY_ROW + "," + EMPTY_ROW + ","
+                    + EMPTY_ROW + "," + EMPTY_ROW + "," + EMPTY_ROW + "," + EMPTY_ROW + "]},\"enPassantSquare\":44}"})
+    @DisplayName("Malformed Games Are Rejected")
+    public void malformed(String json) {
+        Assertions.assertThrows(JsonParseException.class, () -> GSON.fromJson(json, ChessGame.class));
+    }
+}
@@ -0,0 +1,57 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+public class LegalMoveGeneratorTests {
+
+    @Test
+    @DisplayName("Legal Moves Match Make/Unmake Filtering Over Random Games")
+    public void matchesMakeUnmakeFilter() {
+        Random random = new Random(240);
+        MoveBuffer buffer = new MoveBuffer();
+        for (int gameNumber = 0; gameNumber < 200; gameNumber++) {
+            ChessGame game = new ChessGame();
+            for (int ply = 0; ply < 150; ply++) {
+                ChessGame.TeamColor turn = game.getTeamTurn();
+                Set<Integer> expected = filtered(game, turn);
+
+                buffer.clear();
+                game.generateLegalMoves(turn, buffer);
+                Set<Integer> actual = new HashSet<>();
+                for (int i = 0; i < buffer.size(); i++) {
+                    actual.add(buffer.get(i));
+                }
+                Assertions.assertEquals(expected, actual, "Wrong legal moves in game " + gameNumber + " ply " + ply);
+                if (actual.isEmpty()) {
+                    break;
+                }
+                game.makeMove(buffer.get(random.nextInt(buffer.size())));
+            }
+        }
+    }
+
+    //every pseudo-legal move that doesn't leave the king in check
+    private static Set<Integer> filtered(ChessGame game, ChessGame.TeamColor turn) {
+        MoveBuffer pseudo = new MoveBuffer();
+        long pieces = game.getBoard().getPieces(turn);
+        while (pieces != 0) {
+            game.generatePseudoLegalMoves(Long.numberOfTrailingZeros(pieces), pseudo);
+            pieces &= pieces - 1;
+        }
+        Set<Integer> legal = new HashSet<>();
+        for (int i = 0; i < pseudo.size(); i++) {
+            game.makeMove(pseudo.get(i));
+            if (!game.isInCheck(turn)) {
+                legal.add(pseudo.get(i));
+            }
+            game.unmakeMove();
+        }
+        return legal;
+    }
+}
@@ -0,0 +1,62 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Random;
+
+public class SanTests {
+
+    @Test
+    @DisplayName("Random Games Round Trip Through SAN")
+    public void randomGames() {
+        Random random = new Random(2300);
+        MoveBuffer moves = new MoveBuffer();
+        MoveBuffer scratch = new MoveBuffer();
+        for (int gameNumber = 0; gameNumber < 50; gameNumber++) {
+            ChessGame game = new ChessGame();
+            for (int ply = 0; ply < 150; ply++) {
+                moves.clear();
+                game.generateLegalMoves(game.getTeamTurn(), moves);
+                if (moves.size() == 0) {
+                    break;
+                }
+                //every legal move, not just the one played, must come back as itself
+                for (int i = 0; i < moves.size(); i++) {
+                    String san = San.format(game, moves.get(i));
+                    Assertions.assertEquals(moves.get(i), San.parse(game, san, scratch), san);
+                }
+                game.makeMove(moves.get(random.nextInt(moves.size())));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Disambiguation, Promotion And Castling")
+    public void notation() {
+        ChessGame game = Fen.parse("r3k2r/1P6/8/8/8/2N3N1/8/R3K2R w KQkq - 0 1");
+        MoveBuffer scratch = new MoveBuffer();
+        Assertions.assertEquals("Nce4", San.format(game, San.parse(game, "Nce4", scratch)));
+        Assertions.assertEquals("Rd1", San.format(game, San.parse(game, "Rad1", scratch)));
+        Assertions.assertEquals("bxa8=Q+", San.format(game, San.parse(game, "bxa8=Q", scratch)));
+        Assertions.assertEquals("O-O", San.format(game, San.parse(game, "0-0", scratch)));
+        Assertions.assertEquals("O-O-O", San.format(game, San.parse(game, "O-O-O", scratch)));
+        //lenient spellings name the same moves
+        Assertions.assertEquals(San.parse(game, "bxa8=Q", scratch), San.parse(game, "ba8Q!?", scratch));
+        Assertions.assertEquals(San.parse(game, "b8=N", scratch), San.parse(game, "b8N", scratch));
+
+        ChessGame mate = Fen.parse("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1");
+        Assertions.assertEquals("Ra8#", San.format(mate, San.parse(mate, "Ra8", scratch)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "Ne4", "Qd1", "e5", "Kf1f2", "Qa1", "O-O-O-O", "bxa8=K", "z9"})
+    @DisplayName("Ambiguous Or Illegal Moves Are Rejected")
+    public void rejected(String san) {
+        ChessGame game = Fen.parse("r3k2r/1P6/8/8/8/2N3N1/8/R3K2R w KQkq - 0 1");
+        Assertions.assertThrows(IllegalArgumentException.class, () -> San.parse(game, san, new MoveBuffer()));
+    }
+}
@@ -0,0 +1,81 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+public class SlidingAttacksTests {
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+    private static final ChessGame.TeamColor[] COLORS = ChessGame.TeamColor.values();
+
+    @Test
+    @DisplayName("Magic Lookups Match Ray Walk")
+    public void magicMatchesRayWalk() {
+        Random random = new Random(240);
+        for (int i = 0; i < 20000; i++) {
+            int square = random.nextInt(64);
+            long occupied = random.nextLong() & random.nextLong();
+            Assertions.assertEquals(SlidingAttacks.rayAttacks(square, occupied, SlidingAttacks.ROOK_DIRECTIONS),
+                    SlidingAttacks.rookAttacks(square, occupied), "Wrong rook attacks on square " + square);
+            Assertions.assertEquals(SlidingAttacks.rayAttacks(square, occupied, SlidingAttacks.BISHOP_DIRECTIONS),
+                    SlidingAttacks.bishopAttacks(square, occupied), "Wrong bishop attacks on square " + square);
+        }
+    }
+
+    @Test
+    @DisplayName("Slider pieceMoves Match Square By Square Walk")
+    public void sliderMovesMatchWalker() {
+        Random random = new Random(2024);
+        ChessPiece.PieceType[] sliders = {ChessPiece.PieceType.BISHOP, ChessPiece.PieceType.ROOK, ChessPiece.PieceType.QUEEN};
+        for (int i = 0; i < 5000; i++) {
+            ChessBoard board = randomBoard(random, random.nextInt(33));
+            ChessPosition position = new ChessPosition(random.nextInt(8) + 1, random.nextInt(8) + 1);
+            ChessPiece piece = new ChessPiece(COLORS[random.nextInt(2)], sliders[random.nextInt(3)]);
+            board.addPiece(position, piece);
+
+            Set<ChessMove> expected = walk(board, position, piece);
+            Assertions.assertEquals(expected, new HashSet<>(piece.pieceMoves(board, position)),
+                    "Wrong moves for " + piece.getPieceType() + " at " + position);
+        }
+    }
+
+    private static ChessBoard randomBoard(Random random, int pieceCount) {
+        ChessBoard board = new ChessBoard();
+        for (int i = 0; i < pieceCount; i++) {
+            board.addPiece(new ChessPosition(random.nextInt(8) + 1, random.nextInt(8) + 1),
+                    new ChessPiece(COLORS[random.nextInt(2)], TYPES[random.nextInt(TYPES.length)]));
+        }
+        return board;
+    }
+
+    //the original ray walker: step until off the board or blocked
+    private static Set<ChessMove> walk(ChessBoard board, ChessPosition start, ChessPiece piece) {
+        int[][] directions = switch (piece.getPieceType()) {
+            case BISHOP -> SlidingAttacks.BISHOP_DIRECTIONS;
+            case ROOK -> SlidingAttacks.ROOK_DIRECTIONS;
+            default -> new int[][]{{1, -1}, {-1, 1}, {-1, -1}, {1, 1}, {1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+        };
+        Set<ChessMove> moves = new HashSet<>();
+        for (int[] direction : directions) {
+            int row = start.getRow() + direction[0];
+            int col = start.getColumn() + direction[1];
+            while (row >= 1 && row <= 8 && col >= 1 && col <= 8) {
+                ChessPosition end = new ChessPosition(row, col);
+                ChessPiece target = board.getPiece(end);
+                if (target == null || target.getTeamColor() != piece.getTeamColor()) {
+                    moves.add(new ChessMove(start, end, null));
+                }
+                if (target != null) {
+                    break;
+                }
+                row += direction[0];
+                col += direction[1];
+            }
+        }
+        return moves;
+    }
+}
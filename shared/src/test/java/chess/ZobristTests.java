@@ -0,0 +1,49 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+public class ZobristTests {
+
+    @Test
+    @DisplayName("Incremental Key Matches Recomputed Key")
+    public void incrementalMatchesRecomputed() {
+        Random random = new Random(240);
+        MoveBuffer buffer = new MoveBuffer();
+        for (int gameNumber = 0; gameNumber < 100; gameNumber++) {
+            ChessGame game = new ChessGame();
+            long startKey = game.getZobristKey();
+            int plies = 0;
+            for (; plies < 120; plies++) {
+                buffer.clear();
+                game.generateLegalMoves(game.getTeamTurn(), buffer);
+                if (buffer.size() == 0) {
+                    break;
+                }
+                game.makeMove(buffer.get(random.nextInt(buffer.size())));
+                Assertions.assertEquals(Zobrist.compute(game), game.getZobristKey(), "Key drifted after a move");
+            }
+            //taking every move back returns to the starting key
+            for (int i = 0; i < plies; i++) {
+                game.unmakeMove();
+                Assertions.assertEquals(Zobrist.compute(game), game.getZobristKey(), "Key drifted after an unmake");
+            }
+            Assertions.assertEquals(startKey, game.getZobristKey(), "Unmaking every move changed the key");
+        }
+    }
+
+    @Test
+    @DisplayName("Team Turn Changes The Key")
+    public void teamTurnChangesKey() {
+        ChessGame game = new ChessGame();
+        long whiteKey = game.getZobristKey();
+        game.setTeamTurn(ChessGame.TeamColor.BLACK);
+        Assertions.assertNotEquals(whiteKey, game.getZobristKey(), "Black to move has the same key as white");
+        Assertions.assertEquals(Zobrist.compute(game), game.getZobristKey(), "Key drifted after setTeamTurn");
+        game.setTeamTurn(ChessGame.TeamColor.WHITE);
+        Assertions.assertEquals(whiteKey, game.getZobristKey(), "Setting the turn back did not restore the key");
+    }
+}
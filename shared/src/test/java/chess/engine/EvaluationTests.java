@@ -0,0 +1,91 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.Fen;
+import chess.MoveBuffer;
+import chess.PieceSquareTables;
+import chess.perft.PerftPosition;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+public class EvaluationTests {
+
+    private static void assertMatchesScratch(ChessGame game, String when) {
+        ChessBoard board = game.getBoard();
+        int midgame = 0;
+        int endgame = 0;
+        int phase = 0;
+        for (int square = 0; square < 64; square++) {
+            ChessPiece piece = board.getPiece(square);
+            if (piece != null) {
+                midgame += PieceSquareTables.midgame(piece, square);
+                endgame += PieceSquareTables.endgame(piece, square);
+                phase += PieceSquareTables.phase(piece);
+            }
+        }
+        Assertions.assertEquals(midgame, board.getMidgameScore(), "Middlegame score drifted " + when);
+        Assertions.assertEquals(endgame, board.getEndgameScore(), "Endgame score drifted " + when);
+        Assertions.assertEquals(phase, board.getPhase(), "Phase drifted " + when);
+        Assertions.assertEquals(Evaluation.evaluateFromScratch(game), Evaluation.evaluate(game));
+    }
+
+    @Test
+    @DisplayName("Incremental Score Matches Recomputed Score")
+    public void incrementalMatchesRecomputed() {
+        Random random = new Random(1600);
+        MoveBuffer buffer = new MoveBuffer();
+        for (PerftPosition position : PerftPosition.STANDARD) {
+            for (int gameNumber = 0; gameNumber < 20; gameNumber++) {
+                ChessGame game = position.toGame();
+                int startScore = Evaluation.evaluate(game);
+                int plies = 0;
+                for (; plies < 150; plies++) {
+                    buffer.clear();
+                    game.generateLegalMoves(game.getTeamTurn(), buffer);
+                    if (buffer.size() == 0) {
+                        break;
+                    }
+                    game.makeMove(buffer.get(random.nextInt(buffer.size())));
+                    assertMatchesScratch(game, "after a move");
+                }
+                for (int i = 0; i < plies; i++) {
+                    game.unmakeMove();
+                    assertMatchesScratch(game, "after an unmake");
+                }
+                Assertions.assertEquals(startScore, Evaluation.evaluate(game));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Adding And Removing Pieces Updates The Score")
+    public void addAndRemove() {
+        ChessGame game = new ChessGame();
+        ChessBoard board = game.getBoard();
+        assertMatchesScratch(game, "after resetBoard");
+        Assertions.assertEquals(PieceSquareTables.MAX_PHASE, board.getPhase());
+        //replacing a piece removes the old one's value
+        board.addPiece(ChessBoard.square(4, 4), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
+        board.addPiece(ChessBoard.square(4, 4), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
+        assertMatchesScratch(game, "after replacing a piece");
+        board.removePiece(ChessBoard.square(4, 4));
+        board.removePiece(ChessBoard.square(1, 4));
+        assertMatchesScratch(game, "after removing pieces");
+        Assertions.assertTrue(Evaluation.evaluate(game) < 0, "White is a queen down");
+    }
+
+    @Test
+    @DisplayName("Mirrored Positions Score The Same For The Side To Move")
+    public void symmetric() {
+        Assertions.assertEquals(0, Evaluation.evaluate(new ChessGame()));
+        ChessGame white = Fen.parse("4k3/8/8/8/3N4/8/4P3/4K3 w - - 0 1");
+        ChessGame black = Fen.parse("4k3/4p3/8/3n4/8/8/8/4K3 b - - 0 1");
+        Assertions.assertEquals(Evaluation.evaluate(white), Evaluation.evaluate(black));
+        Assertions.assertTrue(Evaluation.evaluate(white) > 0);
+    }
+}
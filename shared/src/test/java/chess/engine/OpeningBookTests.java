@@ -0,0 +1,113 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.PackedMove;
+import chess.perft.PerftPosition;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+public class OpeningBookTests {
+
+    private static ChessMove move(int fromRow, int fromCol, int toRow, int toCol) {
+        return ChessMove.of(ChessPosition.of(fromRow, fromCol), ChessPosition.of(toRow, toCol), null);
+    }
+
+    @Test
+    @DisplayName("Looks Up Weighted Moves")
+    public void lookup(@TempDir Path directory) throws Exception {
+        ChessGame start = new ChessGame();
+        ChessGame kiwipete = PerftPosition.named("kiwipete").toGame();
+        List<OpeningBook.Entry> entries = new ArrayList<>();
+        entries.add(OpeningBook.Entry.of(start, move(2, 4, 4, 4), 10));
+        entries.add(OpeningBook.Entry.of(start, move(2, 5, 4, 5), 30));
+        //castling is stored king-takes-rook and comes back as the king move
+        entries.add(OpeningBook.Entry.of(kiwipete, move(1, 5, 1, 7), 5));
+        //filler so the binary search has something to skip
+        Random random = new Random(20);
+        for (int i = 0; i < 1000; i++) {
+            entries.add(new OpeningBook.Entry(random.nextLong(), random.nextInt(1 << 12), random.nextInt(100)));
+        }
+        Path path = directory.resolve("book.bin");
+        OpeningBook.write(path, entries);
+        Assertions.assertEquals(16 + entries.size() * 16L, Files.size(path));
+
+        OpeningBook book = OpeningBook.open(path);
+        Assertions.assertEquals(entries.size(), book.size());
+        Assertions.assertEquals(List.of(new OpeningBook.BookMove(move(2, 5, 4, 5), 30),
+                new OpeningBook.BookMove(move(2, 4, 4, 4), 10)), book.lookup(start));
+        Assertions.assertEquals(List.of(new OpeningBook.BookMove(move(1, 5, 1, 7), 5)), book.lookup(kiwipete));
+
+        ChessGame afterE4 = new ChessGame();
+        afterE4.makeMove(PackedMove.of(move(2, 5, 4, 5)));
+        Assertions.assertTrue(book.lookup(afterE4).isEmpty());
+        Assertions.assertNull(book.pick(afterE4, random));
+    }
+
+    @Test
+    @DisplayName("Castling Uses The King Takes Rook Encoding")
+    public void castlingEncoding() {
+        ChessGame kiwipete = PerftPosition.named("kiwipete").toGame();
+        //e1 to h1: from column 4, row 0 to column 7, row 0
+        Assertions.assertEquals(7 | (4 << 6), OpeningBook.encode(kiwipete.getBoard(), move(1, 5, 1, 7)));
+        Assertions.assertEquals(0 | (4 << 6), OpeningBook.encode(kiwipete.getBoard(), move(1, 5, 1, 3)));
+    }
+
+    @Test
+    @DisplayName("Picks In Proportion To Weight")
+    public void pickByWeight(@TempDir Path directory) throws IOException {
+        ChessGame start = new ChessGame();
+        Path path = directory.resolve("book.bin");
+        OpeningBook.write(path, List.of(OpeningBook.Entry.of(start, move(2, 4, 4, 4), 1),
+                OpeningBook.Entry.of(start, move(2, 5, 4, 5), 3)));
+        OpeningBook book = OpeningBook.open(path);
+        Map<ChessMove, Integer> counts = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 4000; i++) {
+            counts.merge(book.pick(start, random), 1, Integer::sum);
+        }
+        Assertions.assertEquals(2, counts.size());
+        int kingPawn = counts.get(move(2, 5, 4, 5));
+        Assertions.assertTrue(kingPawn > 2800 && kingPawn < 3200, "e2e4 picked " + kingPawn + " times");
+    }
+
+    @Test
+    @DisplayName("Rejects Files That Aren't Books")
+    public void rejectsBadFiles(@TempDir Path directory) throws IOException {
+        Path path = directory.resolve("bad.bin");
+        Files.write(path, new byte[17]);
+        Assertions.assertThrows(IOException.class, () -> OpeningBook.open(path));
+
+        //a Polyglot book is bare entries, with no header
+        Path polyglot = directory.resolve("polyglot.bin");
+        ByteBuffer entry = ByteBuffer.allocate(32);
+        entry.putLong(0x463B96181691FC9CL).putShort((short) 0x031C).putShort((short) 1).putInt(0);
+        entry.putLong(0x823C9B50FD114196L).putShort((short) 0x0D63).putShort((short) 1).putInt(0);
+        Files.write(polyglot, entry.array());
+        IOException error = Assertions.assertThrows(IOException.class, () -> OpeningBook.open(polyglot));
+        Assertions.assertTrue(error.getMessage().contains("Polyglot"), error.getMessage());
+
+        //a header whose count doesn't match the entries
+        Path good = directory.resolve("good.bin");
+        OpeningBook.write(good, List.of(OpeningBook.Entry.of(new ChessGame(), move(2, 5, 4, 5), 1)));
+        byte[] bytes = Files.readAllBytes(good);
+        Path truncated = directory.resolve("truncated.bin");
+        Files.write(truncated, Arrays.copyOf(bytes, bytes.length - 16));
+        Assertions.assertThrows(IOException.class, () -> OpeningBook.open(truncated));
+        Assertions.assertEquals(1, OpeningBook.open(good).size());
+    }
+}
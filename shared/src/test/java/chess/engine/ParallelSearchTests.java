@@ -0,0 +1,54 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.Fen;
+import chess.perft.PerftPosition;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class ParallelSearchTests {
+
+    @Test
+    @DisplayName("Finds Mate In One On Every Thread Count")
+    public void findsMateInOne() {
+        ChessGame game = Fen.parse("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1");
+        for (int threads = 1; threads <= 4; threads++) {
+            try (ParallelSearch search = new ParallelSearch(threads, new TranspositionTable(4))) {
+                SearchResult result = search.search(game, SearchLimits.depth(4));
+                Assertions.assertEquals(ChessMove.of(ChessPosition.of(1, 1), ChessPosition.of(8, 1), null),
+                        result.bestMove());
+                Assertions.assertEquals(Search.MATE - 1, result.score());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Main Thread Reaches The Requested Depth")
+    public void reachesDepth() {
+        ChessGame game = PerftPosition.named("kiwipete").toGame();
+        ChessGame before = new ChessGame(game);
+        try (ParallelSearch search = new ParallelSearch(4, new TranspositionTable(16))) {
+            SearchResult result = search.search(game, SearchLimits.depth(5));
+            Assertions.assertEquals(5, result.depth());
+            Assertions.assertTrue(game.legalMoves(game.getTeamTurn()).contains(result.bestMove()));
+            //a second search reuses the helper threads
+            SearchResult again = search.search(game, SearchLimits.depth(4));
+            Assertions.assertEquals(4, again.depth());
+        }
+        Assertions.assertEquals(before, game);
+    }
+
+    @Test
+    @DisplayName("Helpers Stop With The Main Thread")
+    public void helpersStop() {
+        ChessGame game = PerftPosition.named("position4").toGame();
+        try (ParallelSearch search = new ParallelSearch(4, new TranspositionTable(16))) {
+            SearchResult result = search.search(game, SearchLimits.time(100));
+            Assertions.assertTrue(result.elapsedMillis() < 1_000, "Took " + result.elapsedMillis() + " ms");
+            Assertions.assertNotNull(result.bestMove());
+        }
+    }
+}
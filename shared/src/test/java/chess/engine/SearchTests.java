@@ -0,0 +1,72 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.Fen;
+import chess.perft.PerftPosition;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class SearchTests {
+
+    @Test
+    @DisplayName("Finds Mate In One")
+    public void findsMateInOne() {
+        ChessGame game = Fen.parse("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1");
+        SearchResult result = new Search().search(game, SearchLimits.depth(4));
+        Assertions.assertEquals(ChessMove.of(ChessPosition.of(1, 1), ChessPosition.of(8, 1), null),
+                result.bestMove());
+        Assertions.assertEquals(Search.MATE - 1, result.score());
+        Assertions.assertTrue(result.isMate());
+    }
+
+    @Test
+    @DisplayName("Takes A Hanging Queen")
+    public void takesHangingQueen() {
+        ChessGame game = Fen.parse("4k3/8/8/3q4/8/8/3R4/4K3 w - - 0 1");
+        SearchResult result = new Search().search(game, SearchLimits.depth(3));
+        Assertions.assertEquals(ChessMove.of(ChessPosition.of(2, 4), ChessPosition.of(5, 4), null),
+                result.bestMove());
+        Assertions.assertTrue(result.score() > 0, "Winning the queen should score for white");
+    }
+
+    @Test
+    @DisplayName("Respects The Node Limit")
+    public void respectsNodeLimit() {
+        SearchResult result = new Search().search(new ChessGame(), SearchLimits.nodes(5_000));
+        Assertions.assertTrue(result.nodes() <= 5_000, "Searched " + result.nodes() + " nodes");
+        Assertions.assertTrue(result.depth() >= 1);
+        Assertions.assertNotNull(result.bestMove());
+    }
+
+    @Test
+    @DisplayName("Respects The Time Limit")
+    public void respectsTimeLimit() {
+        SearchResult result = new Search().search(Fen.parse(PerftPosition.named("kiwipete").fen()),
+                SearchLimits.time(100));
+        Assertions.assertTrue(result.elapsedMillis() < 1_000, "Took " + result.elapsedMillis() + " ms");
+        Assertions.assertNotNull(result.bestMove());
+        Assertions.assertEquals(result.bestMove(), result.principalVariation().getFirst());
+    }
+
+    @Test
+    @DisplayName("Leaves The Game Unchanged")
+    public void leavesGameUnchanged() {
+        ChessGame game = Fen.parse(PerftPosition.named("position4").fen());
+        ChessGame before = new ChessGame(game);
+        new Search().search(game, SearchLimits.depth(3));
+        Assertions.assertEquals(before, game);
+        Assertions.assertEquals(before.getZobristKey(), game.getZobristKey());
+    }
+
+    @Test
+    @DisplayName("No Move When Checkmated")
+    public void noMoveWhenCheckmated() {
+        ChessGame game = Fen.parse("R5k1/5ppp/8/8/8/8/8/6K1 b - - 0 1");
+        SearchResult result = new Search().search(game, SearchLimits.depth(3));
+        Assertions.assertNull(result.bestMove());
+        Assertions.assertEquals(-Search.MATE, result.score());
+    }
+}
@@ -0,0 +1,62 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.Fen;
+import chess.PackedMove;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.api.Test;
+
+public class StaticExchangeTests {
+
+    private static int see(String fen, int fromRow, int fromCol, int toRow, int toCol, int flags) {
+        ChessBoard board = Fen.parse(fen).getBoard();
+        int move = PackedMove.of(ChessBoard.square(fromRow, fromCol), ChessBoard.square(toRow, toCol), null, flags);
+        return new StaticExchange().evaluate(board, move);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @CsvSource({
+            "pawn takes loose pawn, 4k3/8/8/3p4/4P3/8/8/4K3 w - - 0 1, 4, 5, 5, 4, 100",
+            "pawn trade, 4k3/8/2p5/3p4/4P3/8/8/4K3 w - - 0 1, 4, 5, 5, 4, 0",
+            "queen takes defended pawn, 4k3/8/2p5/3p4/8/8/8/3QK3 w - - 0 1, 1, 4, 5, 4, -800",
+            "rook takes defended pawn, 3rk3/8/8/3p4/8/8/3R4/4K3 w - - 0 1, 2, 4, 5, 4, -400",
+            "x-ray rook backs up the capture, 3rk3/8/8/3p4/8/8/3R4/3RK3 w - - 0 1, 2, 4, 5, 4, 100",
+            "king can't recapture a defended square, 8/8/8/3pk3/8/8/3R4/3RK3 w - - 0 1, 2, 4, 5, 4, 100",
+            "knight takes pawn defended by bishop, 4k3/8/5b2/4p3/8/3N4/8/4K3 w - - 0 1, 3, 4, 5, 5, -220",
+            "bishop takes knight defended by pawn, 4k3/5p2/4n3/8/8/8/8/B3K3 w - - 0 1, 1, 1, 6, 5, -10"})
+    public void captures(String name, String fen, int fromRow, int fromCol, int toRow, int toCol, int expected) {
+        Assertions.assertEquals(expected, see(fen, fromRow, fromCol, toRow, toCol, PackedMove.CAPTURE));
+    }
+
+    @Test
+    @DisplayName("En Passant Wins A Pawn")
+    public void enPassant() {
+        int gain = see("4k3/8/8/3pP3/8/8/8/4K3 w - - 0 1", 5, 5, 6, 4, PackedMove.CAPTURE | PackedMove.EN_PASSANT);
+        Assertions.assertEquals(100, gain);
+    }
+
+    @Test
+    @DisplayName("Quiet Move To An Attacked Square Loses The Piece")
+    public void quietMove() {
+        Assertions.assertEquals(-320, see("4k3/8/2p5/8/8/4N3/8/4K3 w - - 0 1", 3, 5, 5, 4, 0));
+    }
+
+    @Test
+    @DisplayName("Quiescence Sees The Recapture")
+    public void quiescenceResolvesCaptures() {
+        //white is a knight up on the board, but black's pawn takes it
+        ChessGame game = Fen.parse("4k3/8/8/2p5/3N4/8/8/4K3 b - - 0 1");
+        Search search = new Search();
+        Assertions.assertTrue(Evaluation.evaluate(game) < 0);
+        Assertions.assertTrue(search.quiescence(game) > 0, "Black should win the knight for the pawn");
+
+        //white's queen can take a pawn, but standing pat is better
+        ChessGame quiet = Fen.parse("4k3/8/2p5/3p4/8/8/8/3QK3 w - - 0 1");
+        Assertions.assertEquals(Evaluation.evaluate(quiet), search.quiescence(quiet));
+    }
+}
@@ -0,0 +1,123 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.perft.PerftPosition;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class TranspositionTableTests {
+
+    @Test
+    @DisplayName("Capacity Is A Power Of Two Within Budget")
+    public void capacityWithinBudget() {
+        for (int megabytes : new int[]{1, 3, 16, 100}) {
+            TranspositionTable table = new TranspositionTable(megabytes);
+            int capacity = table.capacity();
+            Assertions.assertEquals(1, Integer.bitCount(capacity), capacity + " is not a power of two");
+            Assertions.assertTrue((long) capacity * 16 <= (long) megabytes * 1024 * 1024);
+            Assertions.assertTrue((long) capacity * 32 > (long) megabytes * 1024 * 1024);
+        }
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new TranspositionTable(0));
+    }
+
+    @Test
+    @DisplayName("Stored Entries Read Back")
+    public void storeAndProbe() {
+        TranspositionTable table = new TranspositionTable(1);
+        long key = 0x1234_5678_9ABC_DEF0L;
+        Assertions.assertEquals(0, table.probe(key));
+        table.store(key, 0x4ABCD, -Search.MATE + 7, 12, TranspositionTable.UPPER);
+        long entry = table.probe(key);
+        Assertions.assertEquals(0x4ABCD, TranspositionTable.move(entry));
+        Assertions.assertEquals(-Search.MATE + 7, TranspositionTable.score(entry));
+        Assertions.assertEquals(12, TranspositionTable.depth(entry));
+        Assertions.assertEquals(TranspositionTable.UPPER, TranspositionTable.bound(entry));
+        //same slot, different key
+        Assertions.assertEquals(0, table.probe(key ^ (1L << 62)));
+    }
+
+    @Test
+    @DisplayName("Deeper Entries Are Kept")
+    public void deeperEntriesKept() {
+        TranspositionTable table = new TranspositionTable(1);
+        long deep = 42;
+        long shallow = 42 + ((long) table.capacity() << 8);
+        table.store(deep, 1, 10, 8, TranspositionTable.EXACT);
+        table.store(shallow, 2, 20, 3, TranspositionTable.EXACT);
+        Assertions.assertEquals(8, TranspositionTable.depth(table.probe(deep)));
+        Assertions.assertEquals(0, table.probe(shallow));
+
+        //entries from an earlier search give way
+        table.newSearch();
+        table.store(shallow, 2, 20, 3, TranspositionTable.EXACT);
+        Assertions.assertEquals(0, table.probe(deep));
+        Assertions.assertEquals(3, TranspositionTable.depth(table.probe(shallow)));
+    }
+
+    @Test
+    @DisplayName("Concurrent New Searches Are All Counted")
+    public void concurrentNewSearches() throws InterruptedException {
+        TranspositionTable table = new TranspositionTable(1);
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 10000; i++) {
+                    table.newSearch();
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assertions.assertEquals(threads.length * 10000, table.searchCount());
+    }
+
+    @Test
+    @DisplayName("Concurrent Writers Never Produce Mixed Entries")
+    public void concurrentWriters() throws InterruptedException {
+        TranspositionTable table = new TranspositionTable(1);
+        //only a few slots, so the threads fight over them
+        long slots = 4;
+        AtomicBoolean mixed = new AtomicBoolean();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            long seed = t;
+            threads[t] = new Thread(() -> {
+                SplittableRandom random = new SplittableRandom(seed);
+                for (int i = 0; i < 200_000; i++) {
+                    long key = (random.nextLong() & -(long) table.capacity()) | random.nextLong(slots);
+                    //every field derived from the key, so a torn read shows up as a mismatch
+                    int depth = (int) ((key >>> 32) & 0x3F);
+                    table.store(key, (int) (key >>> 40) & 0xFFFF, depth, depth, TranspositionTable.EXACT);
+                    long entry = table.probe(key);
+                    if (entry != 0 && (TranspositionTable.depth(entry) != depth
+                            || TranspositionTable.score(entry) != depth)) {
+                        mixed.set(true);
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assertions.assertFalse(mixed.get(), "A probe returned data stored for another key");
+    }
+
+    @Test
+    @DisplayName("Shared Table Speeds Up A Repeated Search")
+    public void repeatedSearchUsesTable() {
+        ChessGame game = PerftPosition.named("kiwipete").toGame();
+        Search search = new Search(new TranspositionTable(8));
+        SearchResult first = search.search(game, SearchLimits.depth(5));
+        SearchResult second = search.search(game, SearchLimits.depth(5));
+        Assertions.assertTrue(second.nodes() < first.nodes() / 2,
+                "Second search took " + second.nodes() + " nodes, first " + first.nodes());
+        Assertions.assertEquals(first.bestMove(), second.bestMove());
+    }
+}
@@ -0,0 +1,35 @@
+package chess.perft;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.concurrent.ForkJoinPool;
+
+public class ParallelPerftTests {
+    private static ForkJoinPool pool;
+
+    @BeforeAll
+    public static void startPool() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterAll
+    public static void stopPool() {
+        pool.shutdown();
+    }
+
+    @ParameterizedTest(name = "{0} to depth {1}, split second ply {2}")
+    @CsvSource({"start, 4, false", "kiwipete, 3, false", "kiwipete, 3, true", "position4, 3, true"})
+    @DisplayName("Parallel Counts Match Reference Counts")
+    public void parallelMatchesReference(String name, int depth, boolean splitSecondPly) {
+        PerftPosition position = PerftPosition.named(name);
+        ParallelPerft.Result result = ParallelPerft.perft(position.toGame(), depth, pool, splitSecondPly);
+        Assertions.assertEquals(position.expected(depth), result.nodes(), "Wrong parallel perft count for " + name);
+        long workerNodes = result.workers().stream().mapToLong(ParallelPerft.WorkerStats::nodes).sum();
+        Assertions.assertEquals(result.nodes(), workerNodes, "Worker node counts don't add up");
+    }
+}
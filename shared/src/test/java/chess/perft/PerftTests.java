@@ -0,0 +1,40 @@
+package chess.perft;
+
+import chess.ChessGame;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+public class PerftTests {
+
+    @ParameterizedTest(name = "{0} to depth {1}")
+    @CsvSource({"start, 4", "kiwipete, 3", "position3, 4", "position4, 3", "position5, 3", "position6, 3"})
+    @DisplayName("Reference Position Node Counts")
+    public void referenceCounts(String name, int depth) {
+        PerftPosition position = PerftPosition.named(name);
+        ChessGame game = position.toGame();
+        Assertions.assertEquals(position.expected(depth), Perft.perft(game, depth), "Wrong perft count for " + name);
+        Assertions.assertEquals(position.toGame(), game, "Perft did not leave the game as it found it");
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @CsvSource({"kiwipete", "position4"})
+    @DisplayName("Divide Sums To Perft")
+    public void divideSumsToPerft(String name) {
+        PerftPosition position = PerftPosition.named(name);
+        long total = Perft.divide(position.toGame(), 3).stream().mapToLong(Perft.Division::nodes).sum();
+        Assertions.assertEquals(position.expected(3), total, "Divide counts don't add up for " + name);
+    }
+
+    @Test
+    @DisplayName("Depths Below The Root Are Rejected")
+    public void badDepths() {
+        ChessGame game = new ChessGame();
+        Assertions.assertEquals(1, Perft.perft(game, 0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Perft.perft(game, -1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Perft.divide(game, 0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> Perft.divide(game, -3));
+    }
+}
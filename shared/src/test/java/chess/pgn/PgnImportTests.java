@@ -0,0 +1,142 @@
+package chess.pgn;
+
+import chess.ChessGame;
+import chess.Fen;
+import chess.MoveBuffer;
+import chess.San;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.io.ByteArrayInputStream;
+
+public class PgnImportTests {
+
+    private static PgnReader reader(String pgn) {
+        return new PgnReader(Channels.newChannel(new ByteArrayInputStream(pgn.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    /**
+     * Writes random games as PGN, with the comments, variations and NAGs real archives have
+     *
+     * @return the final position of each game
+     */
+    private static List<ChessGame> writeGames(StringBuilder pgn, int count, long seed) {
+        Random random = new Random(seed);
+        MoveBuffer moves = new MoveBuffer();
+        List<ChessGame> games = new ArrayList<>();
+        for (int n = 0; n < count; n++) {
+            pgn.append("[Event \"Random ").append(n).append("\"]\n[White \"Zoë \\\"W\\\"\"]\n\n");
+            ChessGame game = new ChessGame();
+            int plies = 20 + random.nextInt(80);
+            for (int ply = 0; ply < plies; ply++) {
+                moves.clear();
+                game.generateLegalMoves(game.getTeamTurn(), moves);
+                if (moves.size() == 0) {
+                    break;
+                }
+                int move = moves.get(random.nextInt(moves.size()));
+                if (ply % 2 == 0) {
+                    pgn.append(ply / 2 + 1).append(". ");
+                }
+                pgn.append(San.format(game, move)).append(' ');
+                switch (ply % 17) {
+                    case 3 -> pgn.append("{a comment (with parentheses)} ");
+                    case 7 -> pgn.append("$1 ");
+                    case 11 -> pgn.append("(").append(ply / 2 + 1).append(". e4 {side line} (d4)) ");
+                    default -> {
+                    }
+                }
+                if (ply % 9 == 8) {
+                    pgn.append('\n');
+                }
+                game.makeMove(move);
+            }
+            pgn.append("*\n\n");
+            games.add(game);
+        }
+        return games;
+    }
+
+    @Test
+    @DisplayName("Reads A Scholar's Mate")
+    public void scholarsMate() throws IOException {
+        PgnReader reader = reader("""
+                [Event "Casual"]
+                [Result "1-0"]
+
+                1. e4 e5 2. Qh5 Nc6 3. Bc4 Nf6?? 4. Qxf7# 1-0
+                """);
+        PgnReader.Game game = reader.next();
+        Assertions.assertEquals("Casual", game.tags().get("Event"));
+        Assertions.assertEquals("1-0", game.result());
+        Assertions.assertEquals(7, game.game().getHistorySize());
+        Assertions.assertTrue(game.game().isInCheckmate(ChessGame.TeamColor.BLACK));
+        Assertions.assertNull(reader.next());
+    }
+
+    @Test
+    @DisplayName("Bad Games Are Skipped And FEN Tags Are Used")
+    public void skipsBadGames() throws IOException {
+        PgnReader reader = reader("""
+                [Event "Bad"]
+
+                1. e4 e5 2. Ke3 Nc6 0-1
+
+                [Event "From FEN"]
+                [SetUp "1"]
+                [FEN "6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1"]
+
+                1. Ra8# 1-0
+
+                [Event "No Result"]
+
+                1. d4 d5
+                """);
+        PgnReader.Game fromFen = reader.next();
+        Assertions.assertEquals("From FEN", fromFen.tags().get("Event"));
+        Assertions.assertTrue(fromFen.game().isInCheckmate(ChessGame.TeamColor.BLACK));
+        PgnReader.Game noResult = reader.next();
+        Assertions.assertEquals("*", noResult.result());
+        Assertions.assertEquals(2, noResult.game().getHistorySize());
+        Assertions.assertNull(reader.next());
+        Assertions.assertEquals(1, reader.getSkipped());
+    }
+
+    @Test
+    @DisplayName("Sequential And Parallel Imports Read The Same Games")
+    public void parallelImport(@TempDir Path directory) throws IOException {
+        StringBuilder pgn = new StringBuilder();
+        List<ChessGame> expected = writeGames(pgn, 300, 2301);
+        Path file = directory.resolve("games.pgn");
+        Files.writeString(file, pgn);
+
+        PgnReader.Game first = reader(pgn.toString()).next();
+        Assertions.assertEquals("Zoë \"W\"", first.tags().get("White"));
+
+        Set<String> positions = new HashSet<>();
+        for (ChessGame game : expected) {
+            positions.add(Fen.format(game));
+        }
+        for (int threads : new int[]{1, 3, 8}) {
+            List<String> read = Collections.synchronizedList(new ArrayList<>());
+            PgnImport.Stats stats = PgnImport.read(file, threads, game -> read.add(Fen.format(game.game())));
+            Assertions.assertEquals(expected.size(), stats.games(), threads + " threads");
+            Assertions.assertEquals(0, stats.skipped());
+            Assertions.assertEquals(positions, new HashSet<>(read), threads + " threads");
+            Assertions.assertTrue(stats.gamesPerSecond() > 0);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package websocket;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import chess.MoveBuffer;
+import chess.PackedMove;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import websocket.messages.GameDeltaMessage;
+import websocket.messages.LoadGameMessage;
+import websocket.messages.NotificationMessage;
+
+import java.util.Random;
+
+public class GameMirrorTests {
+
+    @Test
+    @DisplayName("Follows A Game Through Deltas")
+    public void followsDeltas() {
+        MessageCodec codec = new MessageCodec();
+        ChessGame game = new ChessGame();
+        GameMirror mirror = new GameMirror();
+        Assertions.assertTrue(mirror.apply(MessageCodec.readServerMessage(codec.toJson(new LoadGameMessage(game)))));
+        int loadGameBytes = codec.encode(new LoadGameMessage(game)).remaining();
+
+        Random random = new Random(2500);
+        MoveBuffer moves = new MoveBuffer();
+        for (int ply = 0; ply < 200; ply++) {
+            moves.clear();
+            game.generateLegalMoves(game.getTeamTurn(), moves);
+            if (moves.size() == 0) {
+                break;
+            }
+            int move = moves.get(random.nextInt(moves.size()));
+            game.makeMove(move);
+            GameDeltaMessage delta = GameDeltaMessage.after(game, PackedMove.toChessMove(move));
+            //a small fraction of the whole game on the wire
+            Assertions.assertTrue(codec.encode(delta).remaining() * 8 < loadGameBytes);
+            Assertions.assertTrue(mirror.apply(MessageCodec.readServerMessage(codec.toJson(delta))));
+            Assertions.assertEquals(game, mirror.getGame());
+            Assertions.assertEquals(game.getZobristKey(), mirror.getGame().getZobristKey());
+        }
+    }
+
+    @Test
+    @DisplayName("Asks For The Whole Game After A Missed Delta")
+    public void missedDelta() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        GameMirror mirror = new GameMirror();
+        mirror.apply(new LoadGameMessage(new ChessGame(game)));
+
+        ChessMove e4 = new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null);
+        ChessMove e5 = new ChessMove(new ChessPosition(7, 5), new ChessPosition(5, 5), null);
+        ChessMove nf3 = new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null);
+        game.makeMove(e4);
+        GameDeltaMessage first = GameDeltaMessage.after(game, e4);
+        game.makeMove(e5);
+        game.makeMove(nf3);
+        Assertions.assertTrue(mirror.apply(first));
+        //the delta for e5 never arrived, so Nf3 is out of turn
+        Assertions.assertFalse(mirror.apply(GameDeltaMessage.after(game, nf3)));
+        Assertions.assertNull(mirror.getGame());
+        Assertions.assertFalse(mirror.apply(new NotificationMessage("still waiting")));
+
+        Assertions.assertTrue(mirror.apply(new LoadGameMessage(new ChessGame(game))));
+        Assertions.assertEquals(game, mirror.getGame());
+    }
+
+    @Test
+    @DisplayName("Asks For The Whole Game On A Hash Mismatch")
+    public void hashMismatch() {
+        GameMirror mirror = new GameMirror();
+        mirror.apply(new LoadGameMessage(new ChessGame()));
+        ChessMove e4 = new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null);
+        Assertions.assertFalse(mirror.apply(new GameDeltaMessage(e4, GameDeltaMessage.GameStatus.IN_PROGRESS, 42)));
+        Assertions.assertNull(mirror.getGame());
+    }
+
+    @Test
+    @DisplayName("Asks For The Whole Game On A Status Mismatch")
+    public void statusMismatch() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        GameMirror mirror = new GameMirror();
+        mirror.apply(new LoadGameMessage(new ChessGame(game)));
+        ChessMove e4 = new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null);
+        game.makeMove(e4);
+        //right move and hash, but the game is not over
+        Assertions.assertFalse(mirror.apply(new GameDeltaMessage(e4, GameDeltaMessage.GameStatus.CHECKMATE,
+                game.getZobristKey())));
+        Assertions.assertNull(mirror.getGame());
+    }
+
+    @Test
+    @DisplayName("Refuses Deltas After A Reconnect Until The Whole Game Arrives")
+    public void reconnect() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        GameMirror mirror = new GameMirror();
+        mirror.apply(new LoadGameMessage(new ChessGame(game)));
+        mirror.reset();
+
+        ChessMove e4 = new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null);
+        game.makeMove(e4);
+        Assertions.assertFalse(mirror.apply(GameDeltaMessage.after(game, e4)));
+        Assertions.assertTrue(mirror.apply(new LoadGameMessage(new ChessGame(game))));
+        Assertions.assertEquals(game, mirror.getGame());
+    }
+}
@@ -0,0 +1,203 @@
+package websocket;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.Fen;
+import chess.MoveBuffer;
+import chess.perft.PerftPosition;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import websocket.commands.ConnectCommand;
+import websocket.commands.MakeMoveCommand;
+import websocket.commands.UserGameCommand;
+import websocket.messages.ErrorMessage;
+import websocket.messages.GameDeltaMessage;
+import websocket.messages.LoadGameMessage;
+import websocket.messages.NotificationMessage;
+import websocket.messages.ServerMessage;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+public class MessageCodecTests {
+    private static final Gson GSON = new Gson();
+
+    private static void assertLoadGame(MessageCodec codec, ChessGame game) {
+        LoadGameMessage message = new LoadGameMessage(game);
+        String json = codec.toJson(message);
+        Assertions.assertEquals(GSON.toJson(message), json);
+        ServerMessage read = MessageCodec.readServerMessage(json);
+        Assertions.assertEquals(message, read);
+        Assertions.assertEquals(game.getZobristKey(), ((LoadGameMessage) read).getGame().getZobristKey());
+    }
+
+    @Test
+    @DisplayName("Games Are Written Exactly As Gson Writes Them")
+    public void loadGame() {
+        MessageCodec codec = new MessageCodec();
+        for (PerftPosition position : PerftPosition.STANDARD) {
+            assertLoadGame(codec, position.toGame());
+        }
+        Random random = new Random(2400);
+        MoveBuffer moves = new MoveBuffer();
+        ChessGame game = new ChessGame();
+        for (int ply = 0; ply < 200; ply++) {
+            moves.clear();
+            game.generateLegalMoves(game.getTeamTurn(), moves);
+            if (moves.size() == 0) {
+                break;
+            }
+            game.makeMove(moves.get(random.nextInt(moves.size())));
+            assertLoadGame(codec, game);
+        }
+    }
+
+    @Test
+    @DisplayName("Games Are Written In The GameJson Shape")
+    public void gameShape() {
+        String empty = "null,null,null,null,null,null,null,null";
+        String json = new MessageCodec().toJson(new LoadGameMessage(Fen.parse("4k3/8/8/8/8/8/8/R3K3 b Q - 0 1")));
+        Assertions.assertEquals("{\"game\":{\"board\":{\"board\":[[{\"pieceColor\":\"WHITE\",\"type\":\"ROOK\"},"
+                + "null,null,null,{\"pieceColor\":\"WHITE\",\"type\":\"KING\"},null,null,null],"
+                + ("[" + empty + "],").repeat(6)
+                + "[null,null,null,null,{\"pieceColor\":\"BLACK\",\"type\":\"KING\"},null,null,null]]},"
+                + "\"teamTurn\":\"BLACK\",\"castlingRights\":2,\"enPassantSquare\":-1},"
+                + "\"serverMessageType\":\"LOAD_GAME\"}", json);
+    }
+
+    @Test
+    @DisplayName("Text Is Escaped Exactly As Gson Escapes It")
+    public void escaping() {
+        MessageCodec codec = new MessageCodec();
+        String[] texts = {"", "plain", "quote \" and \\ backslash", "<b>a&b='c'</b>", "tab\tnew\nline\r\f\b\u0001",
+                "café 中 😀", "line\u2028para\u2029", "lone \ud83d surrogate"};
+        for (String text : texts) {
+            ServerMessage notification = new NotificationMessage(text);
+            ServerMessage error = new ErrorMessage(text);
+            //compared as the UTF-8 that goes over the wire, where an unpaired surrogate becomes '?'
+            Assertions.assertArrayEquals(GSON.toJson(notification).getBytes(StandardCharsets.UTF_8),
+                    codec.toJson(notification).getBytes(StandardCharsets.UTF_8), text);
+            Assertions.assertArrayEquals(GSON.toJson(error).getBytes(StandardCharsets.UTF_8),
+                    codec.toJson(error).getBytes(StandardCharsets.UTF_8), text);
+            if (!text.startsWith("lone")) {
+                Assertions.assertEquals(notification, MessageCodec.readServerMessage(codec.toJson(notification)));
+                Assertions.assertEquals(error, MessageCodec.readServerMessage(GSON.toJson(error)));
+            }
+        }
+        ServerMessage bare = new ServerMessage(ServerMessage.ServerMessageType.NOTIFICATION);
+        Assertions.assertEquals(GSON.toJson(bare), codec.toJson(bare));
+    }
+
+    @Test
+    @DisplayName("Commands Round Trip")
+    public void commands() {
+        MessageCodec codec = new MessageCodec();
+        UserGameCommand[] commands = {
+                new UserGameCommand(UserGameCommand.CommandType.CONNECT, "token", 7),
+                new ConnectCommand("token", 7, true),
+                new ConnectCommand(null, 8, false),
+                new UserGameCommand(UserGameCommand.CommandType.RESIGN, "token", null),
+                new UserGameCommand(UserGameCommand.CommandType.LEAVE, null, Integer.MIN_VALUE),
+                new MakeMoveCommand("töken", 12, new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null)),
+                new MakeMoveCommand("token", 12, new ChessMove(new ChessPosition(7, 1), new ChessPosition(8, 1),
+                        ChessPiece.PieceType.QUEEN))};
+        for (UserGameCommand command : commands) {
+            String json = codec.toJson(command);
+            Assertions.assertEquals(GSON.toJson(command), json);
+            UserGameCommand read = MessageCodec.readCommand(json);
+            Assertions.assertEquals(command, read);
+            Assertions.assertEquals(command.getClass(), read.getClass());
+        }
+    }
+
+    @Test
+    @DisplayName("Game Deltas Are Written Exactly As Gson Writes Them")
+    public void gameDelta() throws Exception {
+        MessageCodec codec = new MessageCodec();
+        ChessGame game = new ChessGame();
+        ChessMove[] moves = {new ChessMove(new ChessPosition(2, 6), new ChessPosition(3, 6), null),
+                new ChessMove(new ChessPosition(7, 5), new ChessPosition(5, 5), null),
+                new ChessMove(new ChessPosition(2, 7), new ChessPosition(4, 7), null),
+                new ChessMove(new ChessPosition(8, 4), new ChessPosition(4, 8), null)};
+        GameDeltaMessage.GameStatus[] statuses = {GameDeltaMessage.GameStatus.IN_PROGRESS,
+                GameDeltaMessage.GameStatus.IN_PROGRESS, GameDeltaMessage.GameStatus.IN_PROGRESS,
+                GameDeltaMessage.GameStatus.CHECKMATE};
+        for (int i = 0; i < moves.length; i++) {
+            game.makeMove(moves[i]);
+            GameDeltaMessage delta = GameDeltaMessage.after(game, moves[i]);
+            Assertions.assertEquals(statuses[i], delta.getStatus());
+            String json = codec.toJson(delta);
+            Assertions.assertEquals(GSON.toJson(delta), json);
+            Assertions.assertEquals(delta, MessageCodec.readServerMessage(json));
+            Assertions.assertEquals(delta, GSON.fromJson(json, GameDeltaMessage.class));
+        }
+    }
+
+    @Test
+    @DisplayName("Encodes Into One Reused Buffer")
+    public void reusedBuffer() {
+        MessageCodec codec = new MessageCodec();
+        ServerMessage message = new LoadGameMessage(new ChessGame());
+        ByteBuffer first = codec.encode(message);
+        byte[] bytes = new byte[first.remaining()];
+        first.get(bytes);
+        Assertions.assertEquals(GSON.toJson(message), new String(bytes, StandardCharsets.UTF_8));
+
+        ByteBuffer second = codec.encode(new ErrorMessage("Error: not your turn"));
+        Assertions.assertSame(first, second);
+        Assertions.assertEquals(GSON.toJson(new ErrorMessage("Error: not your turn")),
+                StandardCharsets.UTF_8.decode(second).toString());
+    }
+
+    @Test
+    @DisplayName("Reads Formatted And Reordered JSON")
+    public void formatted() {
+        ChessGame game = PerftPosition.named("kiwipete").toGame();
+        String pretty = new GsonBuilder().setPrettyPrinting().create().toJson(new LoadGameMessage(game));
+        Assertions.assertEquals(new LoadGameMessage(game), MessageCodec.readServerMessage(pretty));
+
+        UserGameCommand command = MessageCodec.readCommand(
+                " { \"gameID\" : 3 , \"extra\" : [1, {\"a\": null}, true, -2.5e3], \"commandType\" : \"CONNECT\" } ");
+        Assertions.assertEquals(new UserGameCommand(UserGameCommand.CommandType.CONNECT, null, 3), command);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "{", "[]", "{\"serverMessageType\":\"NOPE\"}", "{\"serverMessageType\":\"ERROR\"} x",
+            "{\"serverMessageType\" \"ERROR\"}", "{\"serverMessageType\":\"ERROR\" \"errorMessage\":\"x\"}",
+            "{\"message\":\"no type\"}", "{\"serverMessageType\":\"LOAD_GAME\",\"game\":{\"teamTurn\":\"WHITE\"}}",
+            "{\"serverMessageType\":\"LOAD_GAME\",\"game\":{\"board\":{\"board\":[[{\"type\":\"KING\"}]]}}}",
+            "{\"serverMessageType\":\"LOAD_GAME\",\"game\":{\"board\":{\"board\":[[],[],[],[],[],[],[]]}}}",
+            "{\"serverMessageType\":\"LOAD_GAME\",\"game\":{\"board\":{\"board\":[[],[],[],[],[],[],[],[]]}}}",
+            "{\"serverMessageType\":\"LOAD_GAME\",\"game\":{\"board\":{\"board\":[[null,null,null,null,null,null,"
+                    + "null,null]]},\"castlingRights\":15}}",
+            "{\"serverMessageType\":\"ERROR\",\"errorMessage\":\"unterminated}",
+            //65 levels of nesting in a field that is skipped
+            "{\"x\":" + "[[[[[[[[[[[[[[[[[[[[[[[[[[[[[[[[[[[[[[[[[[[[[[[[[[[[[[[[[[[[[[[[["
+                    + "]]]]]]]]]]]]]]]]]]]]]]]]]]]]]]]]]]]]]]]]]]]]]]]]]]]]]]]]]]]]]]]]]"
+                    + ",\"serverMessageType\":\"ERROR\"}"})
+    @DisplayName("Malformed JSON Is Rejected")
+    public void malformed(String json) {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> MessageCodec.readServerMessage(json));
+    }
+
+    @Test
+    @DisplayName("Deeply Nested Unknown Fields Are Rejected")
+    public void deeplyNested() {
+        String nested = "[".repeat(20000) + "]".repeat(20000);
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> MessageCodec.readCommand("{\"x\":" + nested + ",\"commandType\":\"CONNECT\"}"));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> MessageCodec.readServerMessage("{\"x\":" + nested + ",\"serverMessageType\":\"ERROR\"}"));
+        //ordinary nesting in an unknown field is still skipped
+        Assertions.assertNotNull(MessageCodec.readCommand("{\"x\":[[{\"y\":[1,{}]}]],\"commandType\":\"CONNECT\","
+                + "\"authToken\":\"t\",\"gameID\":1}"));
+    }
+}